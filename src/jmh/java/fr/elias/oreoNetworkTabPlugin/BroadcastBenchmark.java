@@ -0,0 +1,96 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Network join/quit/switch messages: recipient filtering plus delivery to every allowed player.
+ * An operation only ends once every recipient got the message, so the parallel fan-out is measured honestly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int players;
+
+    @Param({"false", "true"})
+    public boolean fanout;
+
+    private FakeNetwork network;
+    private OreoNetworkTabPlugin plugin;
+    private Settings settings;
+    private Component message;
+    private long recipients;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        network = FakeNetwork.populate(players, 10);
+
+        // 10% of the players sit in the excepted lobby
+        network.addServer("lobby");
+        int i = 0;
+        for (Player p : network.players()) {
+            if (i++ % 10 == 0) network.move(p, "lobby");
+        }
+        recipients = players - (players + 9) / 10;
+
+        // Tab off: only the broadcast path is measured
+        plugin = new OreoNetworkTabPlugin(network.proxy(), NOPLogger.NOP_LOGGER,
+                FakeNetwork.dataDirectory(FakeNetwork.langYml(false, fanout)));
+        plugin.onProxyInit(new ProxyInitializeEvent());
+
+        settings = plugin.settings();
+        message = settings.joinMessage.render("Player0", "shard-1", settings.unknownServerName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plugin.onProxyShutdown(new ProxyShutdownEvent());
+    }
+
+    @Benchmark
+    public void broadcast() {
+        long target = network.messagesSent() + recipients;
+        plugin.broadcastToAllowedPlayers(message);
+        awaitDelivered(target);
+    }
+
+    /**
+     * Same, including rendering the template for the event (what a real switch costs).
+     */
+    @Benchmark
+    public void renderAndBroadcast() {
+        long target = network.messagesSent() + recipients;
+        plugin.broadcastToAllowedPlayers(settings.switchMessage.render("Player42", "shard-2", "shard-1"));
+        awaitDelivered(target);
+    }
+
+    private void awaitDelivered(long target) {
+        while (network.messagesSent() < target) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,569 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.event.EventManager;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.player.ServerPostConnectEvent;
+import com.velocitypowered.api.event.player.ServerPreConnectEvent;
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.player.TabList;
+import com.velocitypowered.api.proxy.player.TabListEntry;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import com.velocitypowered.api.scheduler.Scheduler;
+import com.velocitypowered.api.scheduler.TaskStatus;
+import com.velocitypowered.api.util.GameProfile;
+import net.kyori.adventure.text.Component;
+import org.slf4j.Logger;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-in for a Velocity proxy: players, backends and their tab lists, no sockets.
+ * <p>
+ * Everything is a dynamic proxy over the API interfaces, so the fakes keep compiling when Velocity adds methods.
+ * Whatever is not modelled answers a neutral default (false, 0, empty, the builder itself, or another fake).
+ * Scheduled tasks are never run (callers drive the flush paths themselves) unless {@link #runTasksOn} is called;
+ * events only reach the listeners registered on the fake event manager when {@link #fire} is called.
+ * <p>
+ * Each call into a fake is a reflective dispatch, a fixed cost shared by every variant being compared:
+ * read results relative to each other, not as production timings.
+ */
+final class FakeNetwork {
+
+    /**
+     * lang.yml for offline runs: sharding off (no Redis), every message on, lobby excepted.
+     */
+    static String langYml(boolean tabEnabled, boolean fanoutEnabled) {
+        return langYml(tabEnabled, fanoutEnabled, false);
+    }
+
+    /**
+     * @param tabCapped tab.cap.enabled, with the default 80 entries per viewer
+     */
+    static String langYml(boolean tabEnabled, boolean fanoutEnabled, boolean tabCapped) {
+        return String.join("\n",
+                "messages:",
+                "  join:",
+                "    enabled: true",
+                "    format: \"<gradient:#FF1493:#00FF7F>+</gradient> <white>{name}</white> <gray>joined the network</gray>\"",
+                "  quit:",
+                "    enabled: true",
+                "    format: \"<gradient:#FF1493:#00FF7F>-</gradient> <white>{name}</white> <gray>left the network</gray>\"",
+                "  switch:",
+                "    enabled: true",
+                "    format: \"<gray>{name}</gray> <dark_gray>»</dark_gray> <white>{to}</white>\"",
+                "serversException:",
+                "  - \"lobby\"",
+                "tab:",
+                "  enabled: " + tabEnabled,
+                "  showServerInName: true",
+                "  unknownServerName: \"unknown\"",
+                "  updateInterval: 100",
+                "  flushImmediatelyBelow: 0",
+                "  cap:",
+                "    enabled: " + tabCapped,
+                "fanout:",
+                "  enabled: " + fanoutEnabled,
+                "  minPlayers: 500",
+                "  lanes: 16",
+                "  threads: 4",
+                "sharding:",
+                "  enabled: false",
+                "");
+    }
+
+    private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+    private final Map<String, RegisteredServer> servers = new ConcurrentHashMap<>();
+    private final Map<UUID, ServerConnection> connections = new ConcurrentHashMap<>();
+    private final AtomicLong messagesSent = new AtomicLong();
+    // Tab list changes and header/footer sends: one packet each on a real proxy
+    private final AtomicLong tabPackets = new AtomicLong();
+    private final AtomicLong eventsFired = new AtomicLong();
+    private final List<Object> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, List<Method>> subscribers = new ConcurrentHashMap<>();
+    private volatile Scheduler scheduler;
+    private final ProxyServer proxy;
+
+    FakeNetwork() {
+        Collection<Player> allPlayers = Collections.unmodifiableCollection(players.values());
+        Collection<RegisteredServer> allServers = Collections.unmodifiableCollection(servers.values());
+        EventManager eventManager = fake(EventManager.class, (self, m, args) -> {
+            if (m.getName().equals("register") && args.length == 2) {
+                listeners.add(args[1]);
+                return null;
+            }
+            return DEFAULT;
+        });
+
+        this.proxy = fake(ProxyServer.class, (self, m, args) -> switch (m.getName()) {
+            case "getEventManager" -> eventManager;
+            case "getScheduler" -> (scheduler != null) ? scheduler : DEFAULT;
+            case "getAllPlayers" -> allPlayers;
+            case "getPlayerCount" -> players.size();
+            case "getPlayer" -> (args[0] instanceof UUID id)
+                    ? Optional.ofNullable(players.get(id))
+                    : players.values().stream().filter(p -> p.getUsername().equalsIgnoreCase((String) args[0])).findFirst();
+            case "getServer" -> Optional.ofNullable(servers.get(((String) args[0]).toLowerCase(Locale.ROOT)));
+            case "getAllServers" -> allServers;
+            default -> DEFAULT;
+        });
+    }
+
+    /**
+     * @param playerCount players, spread round-robin over the servers
+     * @param serverCount backends named shard-1..shard-n
+     */
+    static FakeNetwork populate(int playerCount, int serverCount) {
+        FakeNetwork network = new FakeNetwork();
+        for (int i = 1; i <= serverCount; i++) {
+            network.addServer("shard-" + i);
+        }
+        for (int i = 0; i < playerCount; i++) {
+            network.join("Player" + i, "shard-" + (i % serverCount + 1));
+        }
+        return network;
+    }
+
+    /**
+     * Fresh data directory holding the given lang.yml.
+     */
+    static Path dataDirectory(String langYml) {
+        try {
+            Path dir = Files.createTempDirectory("oreotab-bench");
+            Files.writeString(dir.resolve("lang.yml"), langYml);
+            dir.toFile().deleteOnExit();
+            dir.resolve("lang.yml").toFile().deleteOnExit();
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    ProxyServer proxy() {
+        return proxy;
+    }
+
+    Collection<Player> players() {
+        return Collections.unmodifiableCollection(players.values());
+    }
+
+    /**
+     * @return messages received by all fake players so far
+     */
+    long messagesSent() {
+        return messagesSent.get();
+    }
+
+    /**
+     * @return tab list entry adds/removes/updates and header/footer sends, all viewers together
+     */
+    long tabPackets() {
+        return tabPackets.get();
+    }
+
+    /**
+     * @return events passed to {@link #fire} so far (including those of {@link #connect})
+     */
+    long eventsFired() {
+        return eventsFired.get();
+    }
+
+    /**
+     * From now on the proxy scheduler really runs tasks, on this executor (instead of dropping them).
+     */
+    void runTasksOn(ScheduledExecutorService executor) {
+        this.scheduler = fake(Scheduler.class, (self, m, args) ->
+                m.getName().equals("buildTask") ? newTaskBuilder(executor, args[1]) : DEFAULT);
+    }
+
+    /**
+     * Receives events passed to {@link #fire}, like a listener registered through the event manager
+     * (the plugin main class is registered that way by Velocity itself).
+     */
+    void register(Object listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return registered listeners of that type (e.g. the ShardTransferHandler the plugin created)
+     */
+    <T> List<T> listeners(Class<T> type) {
+        List<T> found = new ArrayList<>();
+        for (Object listener : listeners) {
+            if (type.isInstance(listener)) found.add(type.cast(listener));
+        }
+        return found;
+    }
+
+    /**
+     * Calls every @Subscribe method taking this event, on the calling thread (no ordering, no async).
+     */
+    void fire(Object event) {
+        eventsFired.incrementAndGet();
+        for (Object listener : listeners) {
+            for (Method method : subscribers.computeIfAbsent(listener.getClass(), FakeNetwork::subscribeMethods)) {
+                if (!method.getParameterTypes()[0].isInstance(event)) continue;
+                try {
+                    method.invoke(listener, event);
+                } catch (InvocationTargetException e) {
+                    e.getCause().printStackTrace();
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private static List<Method> subscribeMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(Subscribe.class) && method.getParameterCount() == 1) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * A backend connection as Velocity runs it: ServerPreConnect, switch, ServerPostConnect.
+     */
+    void connect(Player player, RegisteredServer server) {
+        RegisteredServer previous = player.getCurrentServer().map(ServerConnection::getServer).orElse(null);
+        fire(new ServerPreConnectEvent(player, server, previous));
+        move(player, server.getServerInfo().getName());
+        fire(new ServerPostConnectEvent(player, previous));
+    }
+
+    RegisteredServer server(String name) {
+        return servers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    RegisteredServer addServer(String name) {
+        ServerInfo info = new ServerInfo(name, InetSocketAddress.createUnresolved("127.0.0.1", 25565 + servers.size()));
+        RegisteredServer server = fake(RegisteredServer.class, (self, m, args) -> switch (m.getName()) {
+            case "getServerInfo" -> info;
+            case "getPlayersConnected" -> players.values().stream()
+                    .filter(p -> connections.containsKey(p.getUniqueId())
+                            && connections.get(p.getUniqueId()).getServer() == self)
+                    .toList();
+            default -> DEFAULT;
+        });
+        servers.put(name.toLowerCase(Locale.ROOT), server);
+        return server;
+    }
+
+    /**
+     * @param server backend to connect to, or null to stay between login and first backend
+     */
+    Player join(String name, String server) {
+        UUID id = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes());
+        GameProfile profile = new GameProfile(id, name, List.of());
+        TabList tabList = newTabList();
+
+        Player player = fake(Player.class, (self, m, args) -> switch (m.getName()) {
+            case "getUsername" -> name;
+            case "getUniqueId" -> id;
+            case "getGameProfile" -> profile;
+            case "getTabList" -> tabList;
+            case "getCurrentServer" -> Optional.ofNullable(connections.get(id));
+            case "getPing" -> 20L + (id.getLeastSignificantBits() & 0x3F);
+            case "isActive" -> players.containsKey(id);
+            case "sendMessage" -> {
+                messagesSent.incrementAndGet();
+                yield null;
+            }
+            case "sendPlayerListHeader", "sendPlayerListFooter", "sendPlayerListHeaderAndFooter" -> {
+                tabPackets.incrementAndGet();
+                yield null;
+            }
+            case "createConnectionRequest" -> newConnectionRequest((Player) self, (RegisteredServer) args[0]);
+            default -> DEFAULT;
+        });
+
+        players.put(id, player);
+        if (server != null) move(player, server);
+        return player;
+    }
+
+    void move(Player player, String server) {
+        RegisteredServer target = servers.get(server.toLowerCase(Locale.ROOT));
+        if (target == null) throw new IllegalArgumentException("Unknown server " + server);
+
+        ServerConnection connection = fake(ServerConnection.class, (self, m, args) -> switch (m.getName()) {
+            case "getServer" -> target;
+            case "getServerInfo" -> target.getServerInfo();
+            case "getPlayer" -> player;
+            default -> DEFAULT;
+        });
+        connections.put(player.getUniqueId(), connection);
+    }
+
+    /**
+     * Brings back a player removed by {@link #quit(Player)} (same instance, same tab list).
+     */
+    void rejoin(Player player, String server) {
+        players.put(player.getUniqueId(), player);
+        if (server != null) move(player, server);
+    }
+
+    void quit(Player player) {
+        players.remove(player.getUniqueId());
+        connections.remove(player.getUniqueId());
+    }
+
+    /**
+     * Only fireAndForget is modelled: the connection completes right away, on the calling thread.
+     */
+    private ConnectionRequestBuilder newConnectionRequest(Player player, RegisteredServer target) {
+        return fake(ConnectionRequestBuilder.class, (self, m, args) -> {
+            if (!m.getName().equals("fireAndForget")) return DEFAULT;
+            connect(player, target);
+            return null;
+        });
+    }
+
+    private TabList newTabList() {
+        // Touched by one fan-out lane at a time, but the map must survive being read from the benchmark thread
+        Map<UUID, TabListEntry> entries = new ConcurrentHashMap<>();
+
+        return fake(TabList.class, (self, m, args) -> switch (m.getName()) {
+            case "addEntry" -> {
+                TabListEntry entry = (TabListEntry) args[0];
+                entries.put(entry.getProfile().getId(), entry);
+                tabPackets.incrementAndGet();
+                yield null;
+            }
+            case "removeEntry" -> {
+                TabListEntry removed = entries.remove((UUID) args[0]);
+                if (removed != null) tabPackets.incrementAndGet();
+                yield Optional.ofNullable(removed);
+            }
+            case "containsEntry" -> entries.containsKey((UUID) args[0]);
+            case "getEntry" -> Optional.ofNullable(entries.get((UUID) args[0]));
+            case "getEntries" -> List.copyOf(entries.values());
+            case "clearAll" -> {
+                entries.clear();
+                tabPackets.incrementAndGet();
+                yield null;
+            }
+            case "buildEntry" -> newEntry((TabList) self, args);
+            default -> DEFAULT;
+        });
+    }
+
+    /**
+     * TabList#buildEntry has several overloads: pick the arguments by type instead of position.
+     */
+    private TabListEntry newEntry(TabList owner, Object[] args) {
+        EntryState state = new EntryState();
+        int ints = 0;
+        for (Object arg : args) {
+            if (arg instanceof GameProfile profile) state.profile = profile;
+            else if (arg instanceof Component component) state.displayName = component;
+            else if (arg instanceof Integer i && ints++ == 0) state.latency = i;
+        }
+
+        return fake(TabListEntry.class, (self, m, a) -> switch (m.getName()) {
+            case "getTabList" -> owner;
+            case "getProfile" -> state.profile;
+            case "getDisplayNameComponent" -> Optional.ofNullable(state.displayName);
+            case "setDisplayName" -> {
+                state.displayName = (Component) a[0];
+                tabPackets.incrementAndGet();
+                yield self;
+            }
+            case "getLatency" -> state.latency;
+            case "setLatency" -> {
+                state.latency = (Integer) a[0];
+                tabPackets.incrementAndGet();
+                yield self;
+            }
+            default -> DEFAULT;
+        });
+    }
+
+    private static final class EntryState {
+        volatile GameProfile profile;
+        volatile Component displayName;
+        volatile int latency;
+    }
+
+    // ---- scheduler ----
+
+    /**
+     * Scheduler.TaskBuilder over a real executor: delay/repeat by TimeUnit or Duration, Runnable or Consumer tasks.
+     */
+    private static Scheduler.TaskBuilder newTaskBuilder(ScheduledExecutorService executor, Object task) {
+        long[] delayAndRepeat = new long[2]; // millis, 0 = none
+        return fake(Scheduler.TaskBuilder.class, (self, m, args) -> switch (m.getName()) {
+            case "delay" -> {
+                delayAndRepeat[0] = toMillis(args);
+                yield self;
+            }
+            case "repeat" -> {
+                delayAndRepeat[1] = toMillis(args);
+                yield self;
+            }
+            case "clearDelay" -> {
+                delayAndRepeat[0] = 0;
+                yield self;
+            }
+            case "clearRepeat" -> {
+                delayAndRepeat[1] = 0;
+                yield self;
+            }
+            case "schedule" -> schedule(executor, task, delayAndRepeat[0], delayAndRepeat[1]);
+            default -> DEFAULT;
+        });
+    }
+
+    private static long toMillis(Object[] args) {
+        return (args.length == 2)
+                ? ((TimeUnit) args[1]).toMillis((Long) args[0])
+                : ((Duration) args[0]).toMillis();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ScheduledTask schedule(ScheduledExecutorService executor, Object task, long delay, long repeat) {
+        AtomicReference<ScheduledFuture<?>> future = new AtomicReference<>();
+        ScheduledTask handle = fake(ScheduledTask.class, (self, m, args) -> switch (m.getName()) {
+            // null only while a zero-delay Consumer task is already running: not cancelled yet
+            case "cancel" -> {
+                ScheduledFuture<?> f = future.get();
+                if (f != null) f.cancel(false);
+                yield null;
+            }
+            case "status" -> {
+                ScheduledFuture<?> f = future.get();
+                yield (f == null) ? TaskStatus.SCHEDULED
+                        : f.isCancelled() ? TaskStatus.CANCELLED
+                        : f.isDone() ? TaskStatus.FINISHED : TaskStatus.SCHEDULED;
+            }
+            default -> DEFAULT;
+        });
+
+        Runnable body = () -> {
+            // Like Velocity: a failing run is reported, the repeating task keeps going
+            try {
+                if (task instanceof Runnable r) r.run();
+                else ((Consumer<ScheduledTask>) task).accept(handle);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        };
+        future.set((repeat > 0)
+                ? executor.scheduleAtFixedRate(body, delay, repeat, TimeUnit.MILLISECONDS)
+                : executor.schedule(body, delay, TimeUnit.MILLISECONDS));
+        return handle;
+    }
+
+    // ---- logging ----
+
+    /**
+     * Logger printing warnings and errors to stderr, the rest dropped.
+     */
+    static Logger warningsLogger(String name) {
+        return fake(Logger.class, (self, m, args) -> switch (m.getName()) {
+            case "getName" -> name;
+            case "isWarnEnabled", "isErrorEnabled" -> true;
+            case "warn", "error" -> {
+                if (args.length > 0 && args[0] instanceof String format) {
+                    Object[] rest = Arrays.copyOfRange(args, 1, args.length);
+                    if (rest.length == 1 && rest[0] instanceof Object[] varargs) rest = varargs;
+                    FormattingTuple tuple = MessageFormatter.arrayFormat(format, rest);
+                    System.err.println(m.getName().toUpperCase(Locale.ROOT) + " " + tuple.getMessage());
+                    if (tuple.getThrowable() != null) tuple.getThrowable().printStackTrace();
+                }
+                yield null;
+            }
+            default -> DEFAULT;
+        });
+    }
+
+    // ---- dynamic proxy plumbing ----
+
+    /** Returned by an {@link Answer} to fall back to the default behaviour. */
+    private static final Object DEFAULT = new Object();
+
+    @FunctionalInterface
+    private interface Answer {
+        Object answer(Object self, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T fake(Class<T> type, Answer answer) {
+        InvocationHandler handler = (self, method, args) -> {
+            Object[] a = (args == null) ? new Object[0] : args;
+            switch (method.getName()) {
+                case "equals":
+                    if (a.length == 1 && method.getParameterTypes()[0] == Object.class) return self == a[0];
+                    break;
+                case "hashCode":
+                    if (a.length == 0) return System.identityHashCode(self);
+                    break;
+                case "toString":
+                    if (a.length == 0) return "Fake" + type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(self));
+                    break;
+                default:
+                    break;
+            }
+
+            Object result = answer.answer(self, method, a);
+            return (result == DEFAULT) ? defaultValue(self, method.getReturnType()) : result;
+        };
+        return type.cast(Proxy.newProxyInstance(FakeNetwork.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Object self, Class<?> type) {
+        if (type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0.0;
+        if (type == float.class) return 0.0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\0';
+        if (type == Optional.class) return Optional.empty();
+        if (type == CompletableFuture.class) return CompletableFuture.completedFuture(null);
+        if (type == Set.class) return Set.of();
+        if (type == Map.class) return Map.of();
+        if (type == List.class || type == Collection.class) return List.of();
+        if (type.isInstance(self)) return self; // fluent builders
+        if (type.isInterface()) return fake(type, (s, m, a) -> DEFAULT); // scheduler, event manager, ...
+        return null;
+    }
+}
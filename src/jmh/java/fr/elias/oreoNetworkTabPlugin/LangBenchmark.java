@@ -0,0 +1,84 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config access on hot paths: dotted-path node lookups vs. the {@link Settings} snapshot,
+ * plus what a reload and a display name cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LangBenchmark {
+
+    private Lang lang;
+    private DisplayNameCache displayNames;
+    private UUID playerId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lang = new Lang(NOPLogger.NOP_LOGGER, FakeNetwork.dataDirectory(FakeNetwork.langYml(true, false)));
+        lang.load();
+        displayNames = new DisplayNameCache();
+        playerId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String nodeLookupString() {
+        return lang.getMini("messages.join.format", "");
+    }
+
+    @Benchmark
+    public boolean nodeLookupBool() {
+        return lang.getBool("tab.showServerInName", true);
+    }
+
+    @Benchmark
+    public void settingsSnapshot(Blackhole bh) {
+        Settings settings = lang.settings();
+        bh.consume(settings.joinFormat);
+        bh.consume(settings.showServerInName);
+    }
+
+    @Benchmark
+    public boolean serverExcepted() {
+        return lang.settings().isServerExcepted("Lobby");
+    }
+
+    /**
+     * Everything a reload rebuilds from the parsed tree (templates included).
+     */
+    @Benchmark
+    public Settings rebuildSettings() {
+        return new Settings(lang);
+    }
+
+    @Benchmark
+    public Object displayNameCached() {
+        return displayNames.get(playerId, "Player42", "shard-1", true);
+    }
+
+    @Benchmark
+    public Object displayNameRebuilt() {
+        displayNames.invalidate(playerId);
+        return displayNames.get(playerId, "Player42", "shard-1", true);
+    }
+}
@@ -0,0 +1,413 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.ServerPostConnectEvent;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.proxy.Player;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline load simulator: the whole plugin (tab, broadcasts, shard transfers) against {@link FakeNetwork}
+ * players and a {@link LocalRedis}, driven through scripted storms. No Velocity, no Redis, no network.
+ * <pre>
+ *   mvn -Pbench,sim test-compile exec:exec
+ *   mvn -Pbench,sim test-compile exec:exec -Djmh.args="massJoin players=5000 fanout=false"
+ * </pre>
+ * Scenarios (several = one after the other, on the same network):
+ * <ul>
+ *   <li>massJoin: every player logs in and connects to a backend at once (proxy start, lobby wipe)</li>
+ *   <li>backendRestart: every player of shard-1 drops, then reconnects after the downtime</li>
+ *   <li>regionWaves: waves of transfer requests from the Paper side, pre-load acked after chunkLoad ms</li>
+ * </ul>
+ * Parameters (key=value after the scenarios): players (2000), servers (10), fanout (true), capped (false),
+ * eventThreads (4), downtime (1000 ms), waves (5), waveSize (500), waveGap (1000 ms), chunkLoad (20 ms).
+ * <p>
+ * Each one reports events per second (proxy events fired plus transfer requests published), tab packets
+ * per viewer, allocation rate and, for transfers, latency from the request being published to ServerPostConnect.
+ * <p>
+ * Numbers include the reflective fakes and the loopback Redis: compare runs with each other
+ * (before/after a change, one setting against another), not with production.
+ * Allocation is summed over live threads, so threads that exit during a scenario are not counted.
+ */
+public final class LoadSimulator {
+
+    private static final String TRANSFER_CHANNEL = "shard_transfer_requests";
+    private static final String PRELOAD_CHANNEL = "shard_preload_chunks";
+    private static final String PRELOAD_READY_CHANNEL = "shard_preload_ready";
+
+    // Nothing sent for this long = the storm is over
+    private static final long QUIET_MILLIS = 1000L;
+    private static final long MAX_WAIT_MILLIS = 120_000L;
+
+    private final Map<String, String> params;
+    private final int players;
+    private final int servers;
+    private final Random random = new Random(42);
+
+    private final LocalRedis redis;
+    private final FakeNetwork network;
+    private final ScheduledExecutorService tasks;
+    private final ExecutorService eventThreads;
+    private final ScheduledExecutorService paper;
+    private final ShardTransferHandler transfers;
+
+    private final AtomicLong requestsPublished = new AtomicLong();
+    private final AtomicInteger nextPlayer = new AtomicInteger();
+    // Transfer requests published and not yet through ServerPostConnect
+    private final Map<UUID, Long> transferStarts = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram transferLatency = new LatencyHistogram();
+
+    public static void main(String[] args) throws Exception {
+        String scenarios = (args.length > 0) ? args[0] : "all";
+        Map<String, String> params = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + args[i]);
+            params.put(args[i].substring(0, eq), args[i].substring(eq + 1));
+        }
+
+        LoadSimulator sim = new LoadSimulator(params);
+        try {
+            List<String> names = scenarios.equals("all")
+                    ? List.of("massJoin", "backendRestart", "regionWaves")
+                    : List.of(scenarios.split(","));
+            for (String name : names) {
+                switch (name) {
+                    case "massJoin" -> sim.massJoin();
+                    case "backendRestart" -> sim.backendRestart();
+                    case "regionWaves" -> sim.regionWaves();
+                    default -> throw new IllegalArgumentException("Unknown scenario " + name
+                            + " (massJoin, backendRestart, regionWaves, all)");
+                }
+            }
+        } finally {
+            sim.shutdown();
+        }
+    }
+
+    private LoadSimulator(Map<String, String> params) throws Exception {
+        this.params = params;
+        this.players = intParam("players", 2000);
+        this.servers = intParam("servers", 10);
+
+        this.redis = new LocalRedis();
+        this.network = new FakeNetwork();
+        network.addServer("lobby");
+        for (int i = 1; i <= servers; i++) {
+            network.addServer("shard-" + i);
+        }
+
+        this.tasks = Executors.newScheduledThreadPool(4, daemon("Sim-Scheduler"));
+        this.eventThreads = Executors.newFixedThreadPool(intParam("eventThreads", 4), daemon("Sim-Event"));
+        this.paper = Executors.newScheduledThreadPool(2, daemon("Sim-Paper"));
+        network.runTasksOn(tasks);
+
+        OreoNetworkTabPlugin plugin = new OreoNetworkTabPlugin(network.proxy(), FakeNetwork.warningsLogger("OreoNetworkTab"),
+                FakeNetwork.dataDirectory(langYml(redis.port(), boolParam("fanout", true), boolParam("capped", false))));
+        network.register(plugin);
+        network.register(this);
+        network.fire(new ProxyInitializeEvent());
+
+        List<ShardTransferHandler> handlers = network.listeners(ShardTransferHandler.class);
+        if (handlers.isEmpty()) throw new IllegalStateException("Shard transfers did not start, see the errors above");
+        this.transfers = handlers.get(0);
+
+        // Paper side of every shard: "UUID|server|x|z" -> chunks load for chunkLoad ms -> "UUID" acked
+        long chunkLoad = intParam("chunkLoad", 20);
+        redis.tap(PRELOAD_CHANNEL, message -> {
+            String text = new String(message, StandardCharsets.UTF_8);
+            String playerId = text.substring(0, text.indexOf('|'));
+            paper.schedule(() -> redis.publish(PRELOAD_READY_CHANNEL, playerId), chunkLoad, TimeUnit.MILLISECONDS);
+        });
+
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (redis.subscribers(TRANSFER_CHANNEL) == 0) {
+            if (System.currentTimeMillis() > deadline) throw new IllegalStateException("Transfer subscriber never connected");
+            Thread.sleep(10);
+        }
+    }
+
+    // ---- scenarios ----
+
+    private void massJoin() throws Exception {
+        Measure m = new Measure();
+        List<Runnable> joins = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            String name = "Sim" + nextPlayer.getAndIncrement();
+            String server = "shard-" + (random.nextInt(servers) + 1);
+            joins.add(() -> {
+                Player p = network.join(name, null);
+                network.fire(new PostLoginEvent(p));
+                network.connect(p, network.server(server));
+            });
+        }
+        drive(joins);
+        m.report("massJoin", players + " players, " + servers + " backends", 0L);
+    }
+
+    private void backendRestart() throws Exception {
+        if (network.players().isEmpty()) massJoin();
+
+        List<Player> victims = new ArrayList<>();
+        for (Player p : network.players()) {
+            if (p.getCurrentServer().map(s -> s.getServerInfo().getName()).orElse("").equals("shard-1")) victims.add(p);
+        }
+        long downtime = intParam("downtime", 1000);
+
+        Measure m = new Measure();
+        List<Runnable> drops = new ArrayList<>(victims.size());
+        for (Player p : victims) {
+            drops.add(() -> {
+                network.fire(new DisconnectEvent(p, DisconnectEvent.LoginStatus.SUCCESSFUL_LOGIN));
+                network.quit(p);
+            });
+        }
+        drive(drops);
+        Thread.sleep(downtime);
+
+        List<Runnable> rejoins = new ArrayList<>(victims.size());
+        for (Player p : victims) {
+            rejoins.add(() -> {
+                network.rejoin(p, null);
+                network.fire(new PostLoginEvent(p));
+                network.connect(p, network.server("shard-1"));
+            });
+        }
+        drive(rejoins);
+        m.report("backendRestart", victims.size() + " players of shard-1 drop and reconnect after " + downtime + " ms", downtime);
+    }
+
+    private void regionWaves() throws Exception {
+        if (network.players().isEmpty()) massJoin();
+
+        int waves = intParam("waves", 5);
+        int waveSize = intParam("waveSize", 500);
+        long gap = intParam("waveGap", 1000);
+        transferLatency = new LatencyHistogram();
+
+        Measure m = new Measure();
+        for (int w = 0; w < waves; w++) {
+            if (w > 0) Thread.sleep(gap);
+
+            List<Player> online = new ArrayList<>(network.players());
+            Collections.shuffle(online, random);
+            int sent = 0;
+            for (Player p : online) {
+                if (sent == waveSize) break;
+                String from = p.getCurrentServer().map(s -> s.getServerInfo().getName()).orElse(null);
+                if (from == null || transferStarts.containsKey(p.getUniqueId())) continue;
+
+                String to;
+                do {
+                    to = "shard-" + (random.nextInt(servers) + 1);
+                } while (servers > 1 && to.equals(from));
+
+                // Border crossing: a block just past a region edge
+                double x = random.nextInt(20_000) - 10_000 + 0.5;
+                double z = random.nextInt(20_000) - 10_000 + 0.5;
+                transferStarts.put(p.getUniqueId(), System.nanoTime());
+                redis.publish(TRANSFER_CHANNEL, p.getUniqueId() + "|" + to + "|" + x + "|64.0|" + z);
+                requestsPublished.incrementAndGet();
+                sent++;
+            }
+        }
+        m.report("regionWaves", waves + " waves of " + waveSize + " transfers, " + gap + " ms apart", 0L);
+
+        for (String line : transfers.statusReport()) {
+            System.out.println("    " + line);
+        }
+    }
+
+    @Subscribe
+    public void onServerPostConnect(ServerPostConnectEvent event) {
+        Long startedAt = transferStarts.remove(event.getPlayer().getUniqueId());
+        if (startedAt != null) {
+            transferLatency.recordNanos(System.nanoTime() - startedAt);
+        }
+    }
+
+    // ---- driving ----
+
+    /**
+     * Runs the actions on the event threads, all at once like a storm would, and waits for them.
+     */
+    private void drive(List<Runnable> actions) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(actions.size());
+        for (Runnable action : actions) {
+            futures.add(eventThreads.submit(action));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    /**
+     * Waits until nothing has been sent for QUIET_MILLIS and no transfer is outstanding.
+     *
+     * @return when the last activity was seen (nanoTime)
+     */
+    private long awaitQuiet() throws InterruptedException {
+        long start = System.nanoTime();
+        long lastChange = start;
+        long last = -1;
+        while (true) {
+            long activity = network.tabPackets() + network.messagesSent() + redis.published() + transferStarts.size();
+            long now = System.nanoTime();
+            if (activity != last) {
+                last = activity;
+                lastChange = now;
+            } else if (TimeUnit.NANOSECONDS.toMillis(now - lastChange) >= QUIET_MILLIS && transferStarts.isEmpty()) {
+                return lastChange;
+            }
+            if (TimeUnit.NANOSECONDS.toMillis(now - start) > MAX_WAIT_MILLIS) {
+                return lastChange;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private void shutdown() throws Exception {
+        network.fire(new ProxyShutdownEvent());
+        eventThreads.shutdownNow();
+        paper.shutdownNow();
+        tasks.shutdownNow();
+        redis.close();
+    }
+
+    /**
+     * Counters at the start of a scenario; report() waits for the storm to settle and prints the deltas.
+     */
+    private final class Measure {
+        final long startedAt = System.nanoTime();
+        final long events = events();
+        final long tabPackets = network.tabPackets();
+        final long messages = network.messagesSent();
+        final long allocated = allocatedBytes();
+
+        void report(String name, String description, long pauseMillis) throws InterruptedException {
+            long endedAt = awaitQuiet();
+            double seconds = Math.max(1L, endedAt - startedAt - TimeUnit.MILLISECONDS.toNanos(pauseMillis)) / 1e9;
+            long allocatedMb = (allocatedBytes() - allocated) / (1024 * 1024);
+            int viewers = Math.max(1, network.proxy().getPlayerCount());
+            long events = events() - this.events;
+            long packets = network.tabPackets() - tabPackets;
+
+            System.out.printf("%n== %s: %s%n", name, description);
+            System.out.printf("  events        %,d in %,.0f ms (%,.0f/s)%n", events, seconds * 1000, events / seconds);
+            System.out.printf("  tab packets   %,d (%,.1f per viewer, %,d viewers)%n", packets, (double) packets / viewers, viewers);
+            System.out.printf("  chat messages %,d%n", network.messagesSent() - messages);
+            System.out.printf("  allocation    %,d MB (%,.0f MB/s)%n", allocatedMb, allocatedMb / seconds);
+
+            LatencyHistogram latency = transferLatency;
+            if (name.equals("regionWaves")) {
+                System.out.printf("  transfers     %,d done, %,d lost, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                        latency.getCount(), transferStarts.size(),
+                        latency.getPercentileMicros(50) / 1000.0, latency.getPercentileMicros(95) / 1000.0,
+                        latency.getPercentileMicros(99) / 1000.0, latency.getMaxMicros() / 1000.0);
+                transferStarts.clear();
+            }
+        }
+    }
+
+    private long events() {
+        return network.eventsFired() + requestsPublished.get();
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    // ---- setup ----
+
+    /**
+     * Everything on, as on a busy network; sharding against the local Redis.
+     */
+    private static String langYml(int redisPort, boolean fanout, boolean capped) {
+        return String.join("\n",
+                "messages:",
+                "  join:",
+                "    enabled: true",
+                "    format: \"<gradient:#FF1493:#00FF7F>+</gradient> <white>{name}</white> <gray>joined the network</gray>\"",
+                "  quit:",
+                "    enabled: true",
+                "    format: \"<gradient:#FF1493:#00FF7F>-</gradient> <white>{name}</white> <gray>left the network</gray>\"",
+                "  switch:",
+                "    enabled: true",
+                "    format: \"<gray>{name}</gray> <dark_gray>»</dark_gray> <white>{to}</white>\"",
+                "  flood:",
+                "    enabled: true",
+                "serversException:",
+                "  - \"lobby\"",
+                "reload:",
+                "  watch: false",
+                "tab:",
+                "  enabled: true",
+                "  showServerInName: true",
+                "  updateInterval: 100",
+                "  headerFooter:",
+                "    enabled: true",
+                "  cap:",
+                "    enabled: " + capped,
+                "fanout:",
+                "  enabled: " + fanout,
+                "  minPlayers: 500",
+                "  lanes: 16",
+                "  threads: 4",
+                "network:",
+                "  enabled: false",
+                "sharding:",
+                "  enabled: true",
+                "  redis:",
+                "    host: \"127.0.0.1\"",
+                "    port: " + redisPort,
+                "    password: \"\"",
+                "  preloadDelay: 500",
+                "  preloadAck: true",
+                "");
+    }
+
+    private int intParam(String key, int defaultValue) {
+        String value = params.get(key);
+        return (value == null) ? defaultValue : Integer.parseInt(value);
+    }
+
+    private boolean boolParam(String key, boolean defaultValue) {
+        String value = params.get(key);
+        return (value == null) ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
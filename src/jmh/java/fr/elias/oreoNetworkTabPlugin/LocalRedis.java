@@ -0,0 +1,314 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Just enough of a Redis server for {@link LoadSimulator}, in memory on a loopback port:
+ * PUBLISH / SUBSCRIBE / UNSUBSCRIBE, GET / SET / DEL, PING, and OK for connection setup (CLIENT, SELECT, AUTH).
+ * The plugin's own {@link RedisClient} (pool, pipelined publisher, binary subscriptions) talks to it unmodified.
+ * <p>
+ * The simulated Paper side does not go through a socket: {@link #publish} and {@link #tap} are in-process.
+ * No expiry, no scripting, no streams: owned routing and sharding.streams cannot be simulated with it.
+ */
+final class LocalRedis implements AutoCloseable {
+
+    private final ServerSocket server;
+    // Channel bytes (as ISO-8859-1) -> subscribed connections
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<byte[]>>> taps = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> keys = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong published = new AtomicLong();
+    private volatile boolean running = true;
+
+    LocalRedis() throws IOException {
+        this.server = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "LocalRedis-Accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return messages published so far, by clients and in-process
+     */
+    long published() {
+        return published.get();
+    }
+
+    /**
+     * @return client connections subscribed to this channel
+     */
+    int subscribers(String channel) {
+        Set<Connection> subs = subscribers.get(key(channel.getBytes(StandardCharsets.UTF_8)));
+        return (subs == null) ? 0 : subs.size();
+    }
+
+    /**
+     * In-process subscriber, called on the publishing thread.
+     */
+    void tap(String channel, Consumer<byte[]> handler) {
+        taps.computeIfAbsent(key(channel.getBytes(StandardCharsets.UTF_8)), k -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * @return receivers (connections and taps)
+     */
+    int publish(String channel, String message) {
+        return publish(channel.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    int publish(byte[] channel, byte[] message) {
+        published.incrementAndGet();
+        String key = key(channel);
+        int receivers = 0;
+
+        Set<Connection> subs = subscribers.get(key);
+        if (subs != null) {
+            for (Connection c : subs) {
+                c.push(channel, message);
+                receivers++;
+            }
+        }
+        List<Consumer<byte[]>> handlers = taps.get(key);
+        if (handlers != null) {
+            for (Consumer<byte[]> handler : handlers) {
+                handler.accept(message);
+                receivers++;
+            }
+        }
+        return receivers;
+    }
+
+    private static String key(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Connection c = new Connection(socket);
+                connections.add(c);
+                Thread t = new Thread(c::serve, "LocalRedis-Conn");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (running) e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        for (Connection c : connections) {
+            c.close();
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out; // guarded by this: replies and pushed messages interleave
+        private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        void serve() {
+            try {
+                while (running) {
+                    List<byte[]> command = readCommand();
+                    // Delivered before taking our own monitor: pushing to a subscriber never waits on a publisher
+                    boolean publish = command.size() == 3
+                            && "PUBLISH".equalsIgnoreCase(new String(command.get(0), StandardCharsets.US_ASCII));
+                    int receivers = publish ? publish(command.get(1), command.get(2)) : 0;
+
+                    synchronized (this) {
+                        if (publish) writeSimple(":" + receivers);
+                        else execute(command);
+                        // Pipelines: one flush once everything already sent has been answered
+                        if (in.available() == 0) out.flush();
+                    }
+                }
+            } catch (IOException ignored) {
+                // client went away
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            for (String channel : channels) {
+                Set<Connection> subs = subscribers.get(channel);
+                if (subs != null) subs.remove(this);
+            }
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        synchronized void push(byte[] channel, byte[] message) {
+            try {
+                writeArrayHeader(3);
+                writeBulk("message".getBytes(StandardCharsets.US_ASCII));
+                writeBulk(channel);
+                writeBulk(message);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void execute(List<byte[]> command) throws IOException {
+            if (command.isEmpty()) return;
+            String name = new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "PING" -> {
+                    if (channels.isEmpty()) {
+                        writeSimple("+PONG");
+                    } else {
+                        writeArrayHeader(2);
+                        writeBulk("pong".getBytes(StandardCharsets.US_ASCII));
+                        writeBulk(new byte[0]);
+                    }
+                }
+                case "CLIENT", "SELECT", "AUTH" -> writeSimple("+OK");
+                case "QUIT" -> {
+                    writeSimple("+OK");
+                    out.flush();
+                    throw new EOFException();
+                }
+                case "SUBSCRIBE" -> {
+                    for (int i = 1; i < command.size(); i++) {
+                        String channel = key(command.get(i));
+                        channels.add(channel);
+                        subscribers.computeIfAbsent(channel, k -> ConcurrentHashMap.newKeySet()).add(this);
+                        writeSubscription("subscribe", command.get(i));
+                    }
+                }
+                case "UNSUBSCRIBE" -> {
+                    List<byte[]> targets = new ArrayList<>();
+                    if (command.size() > 1) {
+                        targets.addAll(command.subList(1, command.size()));
+                    } else {
+                        for (String channel : channels) targets.add(channel.getBytes(StandardCharsets.ISO_8859_1));
+                    }
+                    if (targets.isEmpty()) {
+                        writeSubscription("unsubscribe", null);
+                    }
+                    for (byte[] target : targets) {
+                        String channel = key(target);
+                        channels.remove(channel);
+                        Set<Connection> subs = subscribers.get(channel);
+                        if (subs != null) subs.remove(this);
+                        writeSubscription("unsubscribe", target);
+                    }
+                }
+                case "SET" -> {
+                    keys.put(key(command.get(1)), command.get(2)); // EX / PX ignored: nothing expires
+                    writeSimple("+OK");
+                }
+                case "GET" -> writeBulk(keys.get(key(command.get(1))));
+                case "DEL" -> {
+                    int removed = 0;
+                    for (int i = 1; i < command.size(); i++) {
+                        if (keys.remove(key(command.get(i))) != null) removed++;
+                    }
+                    writeSimple(":" + removed);
+                }
+                default -> writeSimple("-ERR unknown command '" + name + "' (LocalRedis)");
+            }
+        }
+
+        private void writeSubscription(String kind, byte[] channel) throws IOException {
+            writeArrayHeader(3);
+            writeBulk(kind.getBytes(StandardCharsets.US_ASCII));
+            writeBulk(channel);
+            writeSimple(":" + channels.size());
+        }
+
+        /**
+         * Clients always send commands as arrays of bulk strings.
+         */
+        private List<byte[]> readCommand() throws IOException {
+            String header = readLine();
+            if (header.isEmpty() || header.charAt(0) != '*') {
+                throw new IOException("Unsupported request: " + header);
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String bulk = readLine();
+                if (bulk.isEmpty() || bulk.charAt(0) != '$') {
+                    throw new IOException("Unsupported argument: " + bulk);
+                }
+                byte[] data = in.readNBytes(Integer.parseInt(bulk.substring(1)));
+                readLine(); // trailing CRLF
+                parts.add(data);
+            }
+            return parts;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) throw new EOFException();
+                sb.append((char) b);
+            }
+            if (in.read() != '\n') throw new IOException("Malformed line");
+            return sb.toString();
+        }
+
+        private void writeSimple(String line) throws IOException {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.write('\r');
+            out.write('\n');
+        }
+
+        private void writeArrayHeader(int size) throws IOException {
+            writeSimple("*" + size);
+        }
+
+        private void writeBulk(byte[] data) throws IOException {
+            if (data == null) {
+                writeSimple("$-1");
+                return;
+            }
+            writeSimple("$" + data.length);
+            out.write(data);
+            out.write('\r');
+            out.write('\n');
+        }
+    }
+}
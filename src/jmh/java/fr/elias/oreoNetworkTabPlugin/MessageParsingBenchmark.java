@@ -0,0 +1,111 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of everything parsed per message: shard transfer requests (both wire formats),
+ * worker striping, and join/quit/switch templates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageParsingBenchmark {
+
+    private static final byte[] TEXT_CHANNEL = "shard_transfer_requests".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BINARY_CHANNEL = "shard_transfer_requests:bin".getBytes(StandardCharsets.UTF_8);
+
+    private final List<String> shardTable = List.of("shard-1", "shard-2", "shard-3");
+
+    private String text;
+    private byte[] textBytes;
+    private byte[] frame;
+
+    private MiniMessage mm;
+    private String joinFormat;
+    private MessageTemplate join;
+    private MessageTemplate gradientName;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        UUID id = UUID.randomUUID();
+        text = id + "|shard-2|1234.5|64.0|-987.25";
+        textBytes = text.getBytes(StandardCharsets.UTF_8);
+        frame = TransferFrame.encode(id, 1, 1234.5, 64.0, -987.25, System.currentTimeMillis());
+
+        mm = MiniMessage.miniMessage();
+        joinFormat = "<gradient:#FF1493:#00FF7F>+</gradient> <white>{name}</white> <gray>joined the network</gray>";
+        join = MessageTemplate.compile(mm, joinFormat);
+        // Placeholder inside a gradient: takes the per-event parse fallback
+        gradientName = MessageTemplate.compile(mm, "<gradient:#FF1493:#00FF7F>{name} joined</gradient>");
+    }
+
+    @Benchmark
+    public TransferRequest parseText() {
+        return TransferRequest.parseText(text);
+    }
+
+    /**
+     * What the subscriber actually does for a text frame: bytes to String, then parse.
+     */
+    @Benchmark
+    public TransferRequest parseTextBytes() {
+        return TransferRequest.parseText(new String(textBytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public TransferRequest decodeBinary() {
+        return TransferFrame.decode(frame, shardTable);
+    }
+
+    @Benchmark
+    public long stripeKeyText() {
+        return ShardTransferHandler.stripeKey(TEXT_CHANNEL, textBytes);
+    }
+
+    @Benchmark
+    public long stripeKeyBinary() {
+        return ShardTransferHandler.stripeKey(BINARY_CHANNEL, frame);
+    }
+
+    @Benchmark
+    public Component renderTemplate() {
+        return join.render("Player42", "shard-2", "shard-1");
+    }
+
+    @Benchmark
+    public Component renderTemplateFallback() {
+        return gradientName.render("Player42", "shard-2", "shard-1");
+    }
+
+    /**
+     * Baseline: converting and parsing the format on every event, as before templates were compiled.
+     */
+    @Benchmark
+    public Component parseFormatEveryTime() {
+        return mm.deserialize(MessageTemplate.braceToMiniPlaceholders(joinFormat),
+                Placeholder.parsed("name", "Player42"),
+                Placeholder.parsed("to", "shard-2"),
+                Placeholder.parsed("from", "shard-1"));
+    }
+}
@@ -0,0 +1,141 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping every tab list in sync ({@link TabListEngine}).
+ * One operation = one batch as {@link TabUpdateScheduler} would flush it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TabUpdateBenchmark {
+
+    private static final int SERVERS = 10;
+
+    @Param({"100", "1000", "5000"})
+    public int players;
+
+    @Param({"false", "true"})
+    public boolean fanout;
+
+    // tab.cap: every viewer gets at most 80 entries, whatever the network size
+    @Param({"false", "true"})
+    public boolean capped;
+
+    private FakeNetwork network;
+    private FanOutExecutor fanOut;
+    private TabListEngine engine;
+    private List<Player> online;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        network = FakeNetwork.populate(players, SERVERS);
+        Lang lang = new Lang(NOPLogger.NOP_LOGGER, FakeNetwork.dataDirectory(FakeNetwork.langYml(true, fanout, capped)));
+        lang.load();
+
+        Settings settings = lang.settings();
+        fanOut = new FanOutExecutor(NOPLogger.NOP_LOGGER, settings.fanoutEnabled, settings.fanoutMinPlayers,
+                settings.fanoutLanes, settings.fanoutThreads);
+        engine = new TabListEngine(network.proxy(), lang, fanOut);
+        engine.resyncAll();
+        online = new ArrayList<>(network.players());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fanOut.shutdown();
+    }
+
+    /**
+     * One player changes backend: their own view is rebuilt, every other viewer gets one in-place update.
+     */
+    @Benchmark
+    public void serverSwitch() {
+        Player p = nextPlayer();
+        network.move(p, "shard-" + (next % SERVERS + 1));
+        engine.apply(Set.of(), List.of(p));
+    }
+
+    /**
+     * 50 switches landing in the same batch window.
+     */
+    @Benchmark
+    public void serverSwitchBurst() {
+        List<Player> batch = new ArrayList<>(50);
+        for (int i = 0; i < 50; i++) {
+            Player p = nextPlayer();
+            network.move(p, "shard-" + (next % SERVERS + 1));
+            batch.add(p);
+        }
+        engine.apply(Set.of(), batch);
+    }
+
+    /**
+     * One player leaves (one remove per viewer), then joins again (one add per viewer + their own view).
+     */
+    @Benchmark
+    public void quitAndRejoin() {
+        Player p = nextPlayer();
+        network.quit(p);
+        engine.apply(Set.of(p.getUniqueId()), List.of());
+
+        network.rejoin(p, "shard-" + (next % SERVERS + 1));
+        engine.apply(Set.of(), List.of(p));
+    }
+
+    /**
+     * Capped view only: a new sample for every viewer, without any player change.
+     */
+    @Benchmark
+    public void rotateSample() {
+        engine.rotateSample();
+        engine.apply(Set.of(), List.of());
+    }
+
+    /**
+     * Periodic latency pass in steady state: every ping sampled, none moved enough to send anything.
+     */
+    @Benchmark
+    public void refreshLatencies() {
+        engine.refreshLatencies();
+    }
+
+    /**
+     * Every tab list cleared and rebuilt: what each join/quit/switch used to cost before incremental updates.
+     */
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void resyncAll() {
+        engine.resyncAll();
+    }
+
+    private Player nextPlayer() {
+        next++;
+        return online.get(next % online.size());
+    }
+}
@@ -0,0 +1,192 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.util.GameProfile;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who each viewer sees when tab.cap is enabled, for one batch.
+ * Built once per batch from every player of the network (O(players)); picking a viewer's entries
+ * then only walks their server's bucket, the priority players and a shared sample, all cut at maxEntries,
+ * so the per-viewer cost and the tab size stay flat however big the network gets.
+ * <p>
+ * Order of preference: the viewer, players on the viewer's server, priority players (staff), the sample.
+ * Inside each group players are ordered by a hash of their UUID and the rotation seed: stable between batches
+ * (a join only shows up where it ranks), and a new seed shows another part of the network.
+ * Each group also gets a fingerprint, so a viewer whose groups didn't change keeps their selection without redoing it.
+ */
+public final class CappedTabView {
+
+    /**
+     * One candidate entry, local or remote.
+     */
+    public static final class Target {
+        public final UUID id;
+        public final GameProfile profile;
+        public final int ping;
+        // Never null (tab.unknownServerName while between backends)
+        public final String server;
+        public final Component name;
+        public final boolean priority;
+        final long rank;
+
+        public Target(UUID id, GameProfile profile, int ping, String server, Component name, boolean priority, long seed) {
+            this.id = id;
+            this.profile = profile;
+            this.ping = ping;
+            this.server = server;
+            this.name = name;
+            this.priority = priority;
+            this.rank = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits() ^ seed);
+        }
+    }
+
+    private static final Comparator<Target> BY_RANK = Comparator.comparingLong(t -> t.rank);
+
+    private final Settings settings;
+    private final int max;
+    private final Map<UUID, Target> byId = new HashMap<>();
+    // server -> its best ranked players (at most max), and how many it really has
+    private final Map<String, List<Target>> byServer = new HashMap<>();
+    private final Map<String, Integer> totals = new HashMap<>();
+    private final List<Target> priority = new ArrayList<>();
+    private final List<Target> sample = new ArrayList<>();
+    // Order-sensitive hash of each group's ids
+    private final Map<String, Long> serverKeys = new HashMap<>();
+    private final long priorityKey;
+    private final long sampleKey;
+    // Viewers of one server mostly see the same counts: render each distinct footer once
+    private final Map<Map<String, Integer>, Component> footers = new ConcurrentHashMap<>();
+
+    public CappedTabView(List<Target> targets, Settings settings) {
+        this.settings = settings;
+        this.max = settings.tabCapMaxEntries;
+
+        List<Target> sorted = new ArrayList<>(targets);
+        sorted.sort(BY_RANK);
+
+        for (Target t : sorted) {
+            if (byId.putIfAbsent(t.id, t) != null) continue;
+
+            totals.merge(t.server, 1, Integer::sum);
+            List<Target> bucket = byServer.computeIfAbsent(t.server, k -> new ArrayList<>());
+            if (bucket.size() < max) bucket.add(t);
+            if (t.priority && priority.size() < max) priority.add(t);
+            if (sample.size() < max) sample.add(t);
+        }
+
+        for (Map.Entry<String, List<Target>> e : byServer.entrySet()) {
+            serverKeys.put(e.getKey(), key(e.getValue()));
+        }
+        this.priorityKey = key(priority);
+        this.sampleKey = key(sample);
+    }
+
+    /**
+     * Same key as in an earlier view = {@link #select} returns the same targets (for the same viewer).
+     */
+    public long selectionKey(String server) {
+        long key = serverKeys.getOrDefault(server, 0L);
+        // A full server bucket is all the viewer will ever see
+        if (byServer.getOrDefault(server, List.of()).size() >= max) return key;
+        return mix(mix(key ^ priorityKey) ^ sampleKey);
+    }
+
+    public Target get(UUID id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @param server the viewer's server, as used for {@link Target#server}
+     * @return at most maxEntries targets, by target UUID
+     */
+    public Map<UUID, Target> select(UUID viewerId, String server) {
+        Map<UUID, Target> shown = new LinkedHashMap<>();
+
+        Target self = byId.get(viewerId);
+        if (self != null) shown.put(self.id, self);
+
+        fill(shown, byServer.getOrDefault(server, List.of()));
+        fill(shown, priority);
+        fill(shown, sample);
+        return shown;
+    }
+
+    public static Map<String, Integer> countPerServer(Collection<Target> shown) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Target t : shown) {
+            counts.merge(t.server, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * @param shownPerServer what the viewer sees, see {@link #countPerServer} (must not be modified afterwards)
+     * @return "+N more on X" lines for what the viewer doesn't see, or an empty component if they see everyone
+     */
+    public Component footer(Map<String, Integer> shownPerServer) {
+        return footers.computeIfAbsent(shownPerServer, this::render);
+    }
+
+    private Component render(Map<String, Integer> shownPerServer) {
+        List<Map.Entry<String, Integer>> hidden = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : totals.entrySet()) {
+            int count = e.getValue() - shownPerServer.getOrDefault(e.getKey(), 0);
+            if (count > 0) hidden.add(Map.entry(e.getKey(), count));
+        }
+        if (hidden.isEmpty()) return Component.empty();
+
+        hidden.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<Component> lines = new ArrayList<>();
+        int others = 0;
+        for (Map.Entry<String, Integer> e : hidden) {
+            if (lines.size() < settings.tabCapSummaryLines) {
+                lines.add(settings.tabCapSummary.render(format(e.getValue()), e.getKey()));
+            } else {
+                others += e.getValue();
+            }
+        }
+        if (others > 0) {
+            lines.add(settings.tabCapSummary.render(format(others), settings.tabCapOtherServers));
+        }
+        return Component.join(JoinConfiguration.newlines(), lines);
+    }
+
+    private void fill(Map<UUID, Target> shown, List<Target> group) {
+        for (Target t : group) {
+            if (shown.size() >= max) return;
+            shown.putIfAbsent(t.id, t);
+        }
+    }
+
+    private static long key(List<Target> group) {
+        long key = group.size();
+        for (Target t : group) {
+            key = key * 31 + t.rank;
+        }
+        return key;
+    }
+
+    private static String format(int count) {
+        return String.format(Locale.ROOT, "%,d", count);
+    }
+
+    // 64-bit finalizer (SplitMix64): spreads UUIDs that share bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
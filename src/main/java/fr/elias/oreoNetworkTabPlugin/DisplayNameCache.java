@@ -0,0 +1,77 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-built TAB display names, one per target player.
+ * The component is identical for every viewer, so it is built once and shared;
+ * it is rebuilt only when the username, current server or tab.showServerInName changes.
+ */
+public final class DisplayNameCache {
+
+    private final Map<UUID, Cached> cache = new ConcurrentHashMap<>();
+
+    public Component get(UUID id, String username, String serverName, boolean showServer) {
+        Cached cached = cache.get(id);
+        if (cached != null && cached.matches(username, serverName, showServer)) {
+            return cached.component;
+        }
+
+        Cached built = new Cached(username, serverName, showServer, build(username, serverName, showServer));
+        cache.put(id, built);
+        return built.component;
+    }
+
+    /**
+     * Server switch / quit.
+     */
+    public void invalidate(UUID id) {
+        cache.remove(id);
+    }
+
+    /**
+     * Config reload.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private static Component build(String username, String serverName, boolean showServer) {
+        if (!showServer) {
+            return Component.text(username, NamedTextColor.WHITE);
+        }
+
+        return Component.text()
+                .append(Component.text(username, NamedTextColor.WHITE))
+                .append(Component.space())
+                .append(Component.text("(", NamedTextColor.DARK_GRAY))
+                .append(Component.text(serverName, NamedTextColor.GRAY))
+                .append(Component.text(")", NamedTextColor.DARK_GRAY))
+                .build();
+    }
+
+    private static final class Cached {
+        final String username;
+        final String serverName;
+        final boolean showServer;
+        final Component component;
+
+        Cached(String username, String serverName, boolean showServer, Component component) {
+            this.username = username;
+            this.serverName = serverName;
+            this.showServer = showServer;
+            this.component = component;
+        }
+
+        boolean matches(String username, String serverName, boolean showServer) {
+            return this.showServer == showServer
+                    && this.username.equals(username)
+                    && (!showServer || this.serverName.equals(serverName));
+        }
+    }
+}
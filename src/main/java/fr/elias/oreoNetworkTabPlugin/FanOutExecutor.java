@@ -0,0 +1,228 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Splits per-recipient work (chat broadcasts, TAB pushes) into chunks that run in parallel.
+ * <p>
+ * Recipients are partitioned into "lanes" by UUID: a given viewer always lands in the same lane,
+ * and each lane runs its chunks one after another, so a viewer's packets are never reordered.
+ * Lanes run on virtual threads when available (Java 21+), otherwise on a small bounded pool.
+ * <p>
+ * When disabled (fanout.enabled: false) or below fanout.minPlayers, work runs inline on the caller thread.
+ */
+public final class FanOutExecutor {
+
+    private final Logger logger;
+    private final boolean enabled;
+    private final int minPlayers;
+    private final ExecutorService backing;
+    private final Lane[] lanes;
+
+    // Chunks queued or running; inline execution only happens when nothing is in flight (keeps ordering)
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public FanOutExecutor(Logger logger, boolean enabled, int minPlayers, int lanes, int poolThreads) {
+        this.logger = logger;
+        this.enabled = enabled;
+        this.minPlayers = Math.max(0, minPlayers);
+
+        if (!enabled) {
+            this.backing = null;
+            this.lanes = new Lane[0];
+            return;
+        }
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            this.backing = virtual;
+            logger.info("[OreoNetworkTab] Fan-out enabled on virtual threads ({} lanes, from {} players).", lanes, minPlayers);
+        } else {
+            int threads = Math.max(1, poolThreads);
+            this.backing = Executors.newFixedThreadPool(threads, daemonFactory());
+            logger.info("[OreoNetworkTab] Fan-out enabled on {} threads ({} lanes, from {} players).", threads, lanes, minPlayers);
+        }
+
+        this.lanes = new Lane[Math.max(1, lanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Runs the work on the caller thread if a batch of this size would not be split across lanes
+     * (lets callers skip building a recipient list).
+     *
+     * @return false if nothing ran: the batch must go through {@link #forEach}
+     */
+    public boolean runIfSerial(int recipients, Runnable work) {
+        if (enabled && (recipients >= minPlayers || inFlight.get() > 0)) return false;
+        work.run();
+        return true;
+    }
+
+    /**
+     * Serial or parallel, decided in one atomic step with the in-flight reservation:
+     * a small batch can't see "nothing in flight" while a bigger one is being queued, then overtake it.
+     *
+     * @return true if the batch goes through the lanes; the caller then holds one in-flight count
+     */
+    private boolean reserveParallel(int recipients) {
+        if (!enabled) return false;
+        if (recipients >= minPlayers) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int n = inFlight.get();
+            if (n == 0) return false;
+            if (inFlight.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    /**
+     * Runs the action for every recipient. Returns immediately in parallel mode.
+     */
+    public CompletableFuture<Void> forEach(Collection<Player> recipients, Consumer<Player> action) {
+        if (!reserveParallel(recipients.size())) {
+            for (Player p : recipients) {
+                runSafely(action, p);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return submitChunks(recipients, action);
+        } finally {
+            // Each queued chunk holds its own count from here on
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private CompletableFuture<Void> submitChunks(Collection<Player> recipients, Consumer<Player> action) {
+        List<List<Player>> chunks = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        for (Player p : recipients) {
+            chunks.get(laneOf(p)).add(p);
+        }
+
+        List<CompletableFuture<Void>> done = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            List<Player> chunk = chunks.get(i);
+            if (chunk.isEmpty()) continue;
+
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            done.add(f);
+            inFlight.incrementAndGet();
+            lanes[i].submit(() -> {
+                try {
+                    for (Player p : chunk) {
+                        runSafely(action, p);
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                    f.complete(null);
+                }
+            });
+        }
+        return CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Same as {@link #forEach} but waits for every chunk (used by the TAB flusher, never by event handlers).
+     */
+    public void forEachAndWait(Collection<Player> recipients, Consumer<Player> action) {
+        forEach(recipients, action).join();
+    }
+
+    public void shutdown() {
+        if (backing == null) return;
+
+        backing.shutdown();
+        try {
+            if (!backing.awaitTermination(2, TimeUnit.SECONDS)) {
+                backing.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            backing.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int laneOf(Player p) {
+        return Math.floorMod(p.getUniqueId().hashCode(), lanes.length);
+    }
+
+    private void runSafely(Consumer<Player> action, Player p) {
+        try {
+            action.accept(p);
+        } catch (Exception e) {
+            logger.error("[OreoNetworkTab] Fan-out task failed for {}", p.getUsername(), e);
+        }
+    }
+
+    /**
+     * Java 21 virtual threads, looked up reflectively since we still target Java 17.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonFactory() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "OreoTab-FanOut-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Serial queue on top of the backing executor: at most one drainer at a time, FIFO.
+     */
+    private final class Lane implements Runnable {
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void submit(Runnable task) {
+            queue.add(task);
+            if (scheduled.compareAndSet(false, true)) {
+                backing.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                task.run();
+            }
+            scheduled.set(false);
+
+            // Something was added between the last poll and the flag reset
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                backing.execute(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Join/quit storms (proxy or backend restart) in chat.
+ * Per kind, the first messages.flood.threshold events of each messages.flood.window are broadcast as usual;
+ * the ones after that are only counted, and {@link #flush} turns the count into a single summary line
+ * ("+142 players joined the network"), so a storm costs one broadcast per window instead of one per player.
+ */
+public final class FloodAggregator {
+
+    private final Consumer<Component> broadcast;
+    private final Window join = new Window();
+    private final Window quit = new Window();
+
+    /**
+     * @param broadcast sends a summary to every allowed recipient
+     */
+    public FloodAggregator(Consumer<Component> broadcast) {
+        this.broadcast = broadcast;
+    }
+
+    /**
+     * @return true if this event should still get its own message, false if it was counted for the summary
+     */
+    public boolean offer(String kind, Settings settings) {
+        if (!settings.floodEnabled) return true;
+        Window window = window(kind);
+        return window == null || window.offer(System.currentTimeMillis(), settings.floodWindow, settings.floodThreshold);
+    }
+
+    /**
+     * Broadcasts one summary per kind that had events held back (runs every messages.flood.window).
+     */
+    public void flush(Settings settings) {
+        int joined = join.drain();
+        if (joined > 0) broadcast.accept(settings.floodJoinMessage.render(format(joined)));
+        int left = quit.drain();
+        if (left > 0) broadcast.accept(settings.floodQuitMessage.render(format(left)));
+    }
+
+    private Window window(String kind) {
+        return switch (kind) {
+            case "join" -> join;
+            case "quit" -> quit;
+            default -> null;
+        };
+    }
+
+    private static String format(int count) {
+        return String.format(Locale.ROOT, "%,d", count);
+    }
+
+    static final class Window {
+        // All fields guarded by the instance monitor
+        private long startedAt;
+        private int seen;
+        private int held;
+
+        synchronized boolean offer(long now, long length, int threshold) {
+            if (now - startedAt >= length) {
+                startedAt = now;
+                seen = 0;
+            }
+            if (++seen <= threshold) return true;
+            held++;
+            return false;
+        }
+
+        synchronized int drain() {
+            int count = held;
+            held = 0;
+            return count;
+        }
+    }
+}
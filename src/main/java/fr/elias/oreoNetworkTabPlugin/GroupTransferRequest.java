@@ -0,0 +1,55 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Several players crossing into the same shard together (party, boat, mount), sent as one message.
+ * Text frame: "groupId|targetShard|UUID,x,y,z;UUID,x,y,z;..."
+ * The group id is chosen by the Paper side and is what the destination acks the shared pre-load with.
+ */
+public final class GroupTransferRequest {
+
+    public final UUID groupId;
+    public final String targetShard;
+    // One per player, in message order
+    public final List<TransferRequest> members;
+
+    public GroupTransferRequest(UUID groupId, String targetShard, List<TransferRequest> members) {
+        this.groupId = groupId;
+        this.targetShard = targetShard;
+        this.members = members;
+    }
+
+    /**
+     * @throws IllegalArgumentException on a malformed frame (NumberFormatException for bad coordinates)
+     */
+    public static GroupTransferRequest parseText(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Invalid group transfer format: " + message);
+        }
+
+        UUID groupId = UUID.fromString(parts[0]);
+        String targetShard = parts[1];
+
+        String[] entries = parts[2].split(";");
+        List<TransferRequest> members = new ArrayList<>(entries.length);
+        for (String entry : entries) {
+            String[] f = entry.split(",");
+            if (f.length != 4) {
+                throw new IllegalArgumentException("Invalid group member: " + entry);
+            }
+            members.add(new TransferRequest(
+                    UUID.fromString(f[0]),
+                    targetShard,
+                    Double.parseDouble(f[1]),
+                    Double.parseDouble(f[2]),
+                    Double.parseDouble(f[3]),
+                    -1L
+            ));
+        }
+        return new GroupTransferRequest(groupId, targetShard, List.copyOf(members));
+    }
+}
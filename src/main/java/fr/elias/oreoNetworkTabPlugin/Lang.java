@@ -18,13 +18,25 @@ public final class Lang {
 
     private volatile CommentedConfigurationNode root = CommentedConfigurationNode.root();
 
+    // Typed snapshot of root, rebuilt on every load() / reload(). Hot paths read this instead of node lookups.
+    private volatile Settings settings;
+
     public Lang(Logger logger, Path dataDir) {
         this.logger = logger;
         this.dataDir = dataDir;
         this.langFile = dataDir.resolve("lang.yml");
+        this.settings = new Settings(this);
+    }
+
+    // Staging copy for reload(): getters read the candidate tree, nothing is published
+    private Lang(Lang owner, CommentedConfigurationNode root) {
+        this.logger = owner.logger;
+        this.dataDir = owner.dataDir;
+        this.langFile = owner.langFile;
+        this.root = root;
     }
 
-    public void load() {
+    public synchronized void load() {
         try {
             Files.createDirectories(dataDir);
 
@@ -47,7 +59,48 @@ public final class Lang {
             logger.error("[OreoNetworkTab] Failed to load lang.yml", e);
             this.root = CommentedConfigurationNode.root();
         }
+        this.settings = new Settings(this);
+    }
+
+    /**
+     * Re-reads lang.yml while the current config stays active; the new tree and its {@link Settings}
+     * (templates, exception set...) are fully built before being swapped in.
+     * Does disk I/O: call it off the event threads (see {@link LangReloader}).
+     *
+     * @return false if the file is missing, empty or invalid (the current config is kept)
+     */
+    public synchronized boolean reload() {
+        CommentedConfigurationNode fresh;
+        Settings next;
+        try {
+            fresh = YamlConfigurationLoader.builder()
+                    .path(langFile)
+                    .build()
+                    .load();
+            if (fresh.empty()) {
+                // Usually an editor that truncated the file and hasn't written it back yet
+                logger.warn("[OreoNetworkTab] lang.yml is empty, keeping the current config");
+                return false;
+            }
+            next = new Settings(new Lang(this, fresh));
+        } catch (Exception e) {
+            logger.error("[OreoNetworkTab] lang.yml is invalid, keeping the current config: {}", e.getMessage());
+            return false;
+        }
+
+        // Hot paths only read settings; root is for the getters
+        this.root = fresh;
+        this.settings = next;
+        return true;
+    }
+
+    /**
+     * @return the settings snapshot of the last load() / reload(), never null
+     */
+    public Settings settings() {
+        return settings;
     }
+
     public int getInt(String path, int def) {
         return node(path).getInt(def);
     }
@@ -77,26 +130,116 @@ public final class Lang {
                         "  switch:\n" +
                         "    enabled: false\n" +
                         "    format: \"<gray>{name}</gray> <dark_gray>»</dark_gray> <white>{to}</white>\"\n" +
+                        "  flood:\n" +
+                        "    enabled: false\n" +
+                        "    window: 2000\n" +
+                        "    threshold: 5\n" +
+                        "    join: \"<gradient:#FF1493:#00FF7F>+</gradient> <gray>{count} more players joined the network</gray>\"\n" +
+                        "    quit: \"<gradient:#FF1493:#00FF7F>-</gradient> <gray>{count} more players left the network</gray>\"\n" +
+                        "\n" +
+                        "reload:\n" +
+                        "  watch: true\n" +
+                        "  debounce: 500\n" +
                         "\n" +
                         "tab:\n" +
                         "  enabled: true\n" +
                         "  showServerInName: true\n" +
                         "  unknownServerName: \"unknown\"\n" +
+                        "  updateInterval: 100\n" +
+                        "  flushImmediatelyBelow: 20\n" +
+                        "  latency:\n" +
+                        "    interval: 5\n" +
+                        "    minDelta: 50\n" +
+                        "  headerFooter:\n" +
+                        "    enabled: false\n" +
+                        "    interval: 1000\n" +
+                        "    header: \"<gradient:#FF1493:#00FF7F>Oreo Network</gradient>\"\n" +
+                        "    footer: \"<gray>{online}/{max} online</gray>\"\n" +
+                        "  cap:\n" +
+                        "    enabled: false\n" +
+                        "    maxEntries: 80\n" +
+                        "    priorityPermission: \"oreonetworktab.tab.priority\"\n" +
+                        "    rotateInterval: 30\n" +
+                        "    summaryLines: 3\n" +
+                        "    summaryFormat: \"<gray>+{count} more on <white>{server}</white></gray>\"\n" +
+                        "    otherServers: \"other servers\"\n" +
+                        "\n" +
+                        "fanout:\n" +
+                        "  enabled: false\n" +
+                        "  minPlayers: 500\n" +
+                        "  lanes: 16\n" +
+                        "  threads: 4\n" +
+                        "\n" +
+                        "network:\n" +
+                        "  enabled: false\n" +
+                        "  proxyId: \"\"\n" +
+                        "  snapshotInterval: 30\n" +
+                        "  remoteTimeout: 90\n" +
+                        "  pingBucket: 25\n" +
                         "\n" +
                         "# Seamless shard transfers (like Donut SMP)\n" +
                         "sharding:\n" +
-                        "  enabled: true\n" +
+                        "  enabled: false\n" +
                         "  redis:\n" +
-                        "    host: \"88.99.150.35\"\n" +
-                        "    port: 25577\n" +
-                        "    password: \"ELIASps4\"\n" +
+                        "    host: \"localhost\"\n" +
+                        "    port: 6379\n" +
+                        "    password: \"\"\n" +
+                        "    poolSize: 8\n" +
+                        "    timeout: 2000\n" +
+                        "    publishBatch: 256\n" +
+                        "    publishQueue: 10000\n" +
                         "  # How long to wait for chunks to pre-load (milliseconds)\n" +
-                        "  preloadDelay: 100\n";
+                        "  preloadDelay: 100\n" +
+                        "  preloadAck: true\n" +
+                        "  pending:\n" +
+                        "    ttl: 30000\n" +
+                        "    maxSize: 10000\n" +
+                        "  workers:\n" +
+                        "    threads: 4\n" +
+                        "    queueSize: 1024\n" +
+                        "    overflow: \"drop-oldest\"\n" +
+                        "  metrics:\n" +
+                        "    dumpInterval: 0\n" +
+                        "  subscriber:\n" +
+                        "    minBackoff: 500\n" +
+                        "    maxBackoff: 30000\n" +
+                        "    pingInterval: 10000\n" +
+                        "    pingTimeout: 5000\n" +
+                        "  streams:\n" +
+                        "    enabled: false\n" +
+                        "    key: \"shard_transfer_requests:stream\"\n" +
+                        "    batch: 100\n" +
+                        "  routing:\n" +
+                        "    mode: \"broadcast\"\n" +
+                        "    ownerTtl: 60\n" +
+                        "    acceptBroadcast: true\n" +
+                        "  shards: []\n" +
+                        "  groups: {}\n" +
+                        "  groupRefresh: 5\n" +
+                        "  groupPingTimeout: 1000\n";
 
         Files.writeString(langFile, content);
     }
     public java.util.List<String> getStringList(String path) {
+        return stringList(node(path));
+    }
+
+    /**
+     * @return child key -> its string list, for sections like "name: [a, b]" (empty if missing).
+     * Keys may contain dots (server names): children are read from the node, never looked up by path.
+     */
+    public java.util.Map<String, java.util.List<String>> getStringListMap(String path) {
         CommentedConfigurationNode n = node(path);
+        if (n == null || n.virtual()) return java.util.Map.of();
+        java.util.Map<String, java.util.List<String>> out = new java.util.LinkedHashMap<>();
+        for (java.util.Map.Entry<Object, CommentedConfigurationNode> e : n.childrenMap().entrySet()) {
+            java.util.List<String> list = stringList(e.getValue());
+            if (!list.isEmpty()) out.put(String.valueOf(e.getKey()), java.util.List.copyOf(list));
+        }
+        return out;
+    }
+
+    private static java.util.List<String> stringList(CommentedConfigurationNode n) {
         if (n == null || n.virtual()) return java.util.List.of();
         java.util.List<String> out = new java.util.ArrayList<>();
         for (CommentedConfigurationNode child : n.childrenList()) {
@@ -0,0 +1,131 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot reload of lang.yml (/oreotabreload, or the file watcher when reload.watch is on).
+ * Parsing, validation and everything built from the new config run on one background thread,
+ * one reload at a time; events keep reading the previous {@link Settings} until it is swapped in.
+ */
+public final class LangReloader {
+
+    /**
+     * Called on the reload thread after a successful swap.
+     */
+    public interface Listener {
+        void reloaded(Settings previous, Settings current);
+    }
+
+    private final Logger logger;
+    private final Lang lang;
+    private final Listener listener;
+    private final ExecutorService executor;
+
+    private volatile WatchService watcher;
+
+    public LangReloader(Logger logger, Lang lang, Listener listener) {
+        this.logger = logger;
+        this.lang = lang;
+        this.listener = listener;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "OreoTab-Reload");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return completes with false if the file was rejected (the current config stays active)
+     */
+    public CompletableFuture<Boolean> reload() {
+        return CompletableFuture.supplyAsync(this::reloadNow, executor);
+    }
+
+    private boolean reloadNow() {
+        Settings previous = lang.settings();
+        if (!lang.reload()) return false;
+
+        try {
+            listener.reloaded(previous, lang.settings());
+        } catch (Exception e) {
+            logger.error("[OreoNetworkTab] Failed to apply the reloaded lang.yml", e);
+        }
+        logger.info("[OreoNetworkTab] lang.yml reloaded.");
+        return true;
+    }
+
+    /**
+     * Reloads whenever lang.yml changes on disk, once it has been quiet for debounceMillis
+     * (editors often write a file in several steps).
+     */
+    public void watch(long debounceMillis) {
+        Path file = lang.getLangFile().toAbsolutePath();
+        Path dir = file.getParent();
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warn("[OreoNetworkTab] Cannot watch {} - use /oreotabreload instead: {}", dir, e.getMessage());
+            return;
+        }
+        this.watcher = service;
+
+        Thread thread = new Thread(() -> watchLoop(service, file.getFileName(), debounceMillis), "OreoTab-LangWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("[OreoNetworkTab] Watching lang.yml for changes.");
+    }
+
+    private void watchLoop(WatchService service, Path fileName, long debounceMillis) {
+        try {
+            while (true) {
+                if (!touched(service.take(), fileName)) continue;
+
+                // Wait until the writes stop
+                WatchKey next;
+                while ((next = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    touched(next, fileName);
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // shutdown()
+        }
+    }
+
+    private static boolean touched(WatchKey key, Path fileName) {
+        boolean hit = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (fileName.equals(event.context())) hit = true;
+        }
+        key.reset();
+        return hit;
+    }
+
+    public void shutdown() {
+        WatchService service = watcher;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ignored) {
+            }
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A join/quit/switch format (or any other format with {placeholders}) parsed once (at load/reload time).
+ * The placeholders ({name}/{to}/{from} by default) are compiled into marker text, so rendering an event only swaps the markers
+ * instead of re-parsing the whole MiniMessage string (gradients, tags...) every time.
+ * <p>
+ * If a tag splits a placeholder apart (e.g. a gradient spanning {name}), the template falls back
+ * to a per-event parse of the already-converted string.
+ */
+public final class MessageTemplate {
+
+    private static final String[] MESSAGE_KEYS = {"name", "to", "from"};
+
+    // Private-use characters: can't show up in a config format or a username
+    private static final char OPEN = '\uE000';
+    private static final char CLOSE = '\uE001';
+    private static final Pattern SLOT = Pattern.compile(OPEN + "([0-9])" + CLOSE);
+
+    private final MiniMessage mm;
+    private final String[] keys;
+    private final String mini;
+    private final Component compiled; // null = fallback to per-event parsing
+    private final boolean hasSlots;
+
+    private MessageTemplate(MiniMessage mm, String[] keys, String mini, Component compiled, boolean hasSlots) {
+        this.mm = mm;
+        this.keys = keys;
+        this.mini = mini;
+        this.compiled = compiled;
+        this.hasSlots = hasSlots;
+    }
+
+    /**
+     * A join/quit/switch format: {name}, {to}, {from}.
+     */
+    public static MessageTemplate compile(MiniMessage mm, String format) {
+        return compile(mm, format, MESSAGE_KEYS);
+    }
+
+    /**
+     * @param keys placeholder names (at most 10), in the order {@link #render} takes the values
+     */
+    public static MessageTemplate compile(MiniMessage mm, String format, String... keys) {
+        if (keys.length > 10) throw new IllegalArgumentException("At most 10 placeholders");
+        String mini = braceToMiniPlaceholders(format == null ? "" : format, keys);
+
+        TagResolver.Builder slots = TagResolver.builder();
+        for (int i = 0; i < keys.length; i++) {
+            slots.tag(keys[i], Tag.selfClosingInserting(Component.text(OPEN + String.valueOf(i) + CLOSE)));
+        }
+
+        Component compiled = mm.deserialize(mini, slots.build());
+        SlotScan scan = new SlotScan();
+        scan.visit(compiled);
+
+        return new MessageTemplate(mm, keys.clone(), mini, scan.broken ? null : compiled, scan.found);
+    }
+
+    /**
+     * @param values one per placeholder, in the order given to {@link #compile} (name, to, from by default)
+     * @return the message with the placeholders substituted (as plain text)
+     */
+    public Component render(String... values) {
+        if (compiled == null) {
+            TagResolver.Builder resolver = TagResolver.builder();
+            for (int i = 0; i < keys.length; i++) {
+                resolver.resolver(Placeholder.unparsed(keys[i], nullToEmpty(value(values, i))));
+            }
+            return mm.deserialize(mini, resolver.build());
+        }
+        if (!hasSlots) return compiled;
+
+        return compiled.replaceText(TextReplacementConfig.builder()
+                .match(SLOT)
+                .replacement((match, builder) -> builder.content(nullToEmpty(value(values, match.group(1).charAt(0) - '0'))))
+                .build());
+    }
+
+    /**
+     * @return false if this format is parsed again on every render (a tag splits a placeholder)
+     */
+    boolean isPrecompiled() {
+        return compiled != null;
+    }
+
+    /**
+     * Converts {name}/{to}/{from} placeholders (YAML style) into MiniMessage placeholders (<name>/<to>/<from>).
+     */
+    static String braceToMiniPlaceholders(String s) {
+        return braceToMiniPlaceholders(s, MESSAGE_KEYS);
+    }
+
+    static String braceToMiniPlaceholders(String s, String[] keys) {
+        if (s == null || s.isEmpty()) return s;
+        for (String key : keys) {
+            s = s.replace("{" + key + "}", "<" + key + ">");
+        }
+        return s;
+    }
+
+    private static String value(String[] values, int i) {
+        return (i < values.length) ? values[i] : null;
+    }
+
+    private static String nullToEmpty(String s) {
+        return (s == null) ? "" : s;
+    }
+
+    /**
+     * Walks the compiled tree: every marker must still sit whole inside a single text node.
+     */
+    private static final class SlotScan {
+        boolean found;
+        boolean broken;
+
+        void visit(Component c) {
+            if (c instanceof TextComponent) {
+                String content = ((TextComponent) c).content();
+                Matcher m = SLOT.matcher(content);
+                if (m.find()) found = true;
+
+                String rest = m.reset().replaceAll("");
+                if (rest.indexOf(OPEN) >= 0 || rest.indexOf(CLOSE) >= 0) broken = true;
+            }
+            for (Component child : c.children()) {
+                visit(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Network-wide TAB header/footer (tab.headerFooter).
+ * Counts come from the live indexes the connection events already maintain ({@link ServerIndex},
+ * {@link NetworkRoster}), never from walking the player list. Every tick reads those counters; only when
+ * one of the placeholders moved are the two components rendered again and pushed to everyone,
+ * the same instances for every viewer. Players that just joined or switched get the current ones on the next tick.
+ */
+public final class NetworkHeaderFooter {
+
+    /**
+     * A header or footer format, parsed once per load.
+     * Placeholders: {online}, {max}, {proxies}, {lag} (how late this tick ran, ms, in 10ms steps)
+     * and {online:server} for one server's count (up to {@link #MAX_SERVERS} servers per format).
+     */
+    public static final class Format {
+
+        static final int MAX_SERVERS = 5;
+        private static final String[] KEYS = {"online", "max", "proxies", "lag"};
+        private static final Pattern SERVER = Pattern.compile("\\{online:([^{}]+)}");
+
+        final MessageTemplate template;
+        // Servers of the {online:x} placeholders, in slot order after KEYS
+        final String[] servers;
+
+        private Format(MessageTemplate template, String[] servers) {
+            this.template = template;
+            this.servers = servers;
+        }
+
+        public static Format compile(MiniMessage mm, String format) {
+            String source = (format == null) ? "" : format;
+            List<String> servers = new ArrayList<>();
+
+            Matcher m = SERVER.matcher(source);
+            StringBuilder sb = new StringBuilder();
+            while (m.find()) {
+                String server = m.group(1).trim();
+                int slot = servers.indexOf(server);
+                if (slot < 0 && servers.size() < MAX_SERVERS) {
+                    servers.add(server);
+                    slot = servers.size() - 1;
+                }
+                // Past MAX_SERVERS the placeholder is left as typed
+                m.appendReplacement(sb, Matcher.quoteReplacement(slot < 0 ? m.group() : "{online_" + slot + "}"));
+            }
+            m.appendTail(sb);
+
+            String[] keys = Arrays.copyOf(KEYS, KEYS.length + servers.size());
+            for (int i = 0; i < servers.size(); i++) {
+                keys[KEYS.length + i] = "online_" + i;
+            }
+            return new Format(MessageTemplate.compile(mm, sb.toString(), keys), servers.toArray(new String[0]));
+        }
+    }
+
+    private final ProxyServer proxy;
+    private final Lang lang;
+    private final FanOutExecutor fanOut;
+    private final ServerIndex servers;
+    private final NetworkRoster roster; // null when network.enabled is false
+
+    // Joined or switched since the last tick: they get the current components even if nothing changed
+    private final Map<UUID, Player> newcomers = new ConcurrentHashMap<>();
+
+    // Guarded by this (ticks never overlap)
+    private Settings renderedWith;
+    private String[] headerValues;
+    private String[] footerValues;
+    private Component header = Component.empty();
+    private Component footer = Component.empty();
+    private long lastTickAt;
+
+    public NetworkHeaderFooter(ProxyServer proxy, Lang lang, FanOutExecutor fanOut, ServerIndex servers, NetworkRoster roster) {
+        this.proxy = proxy;
+        this.lang = lang;
+        this.fanOut = fanOut;
+        this.servers = servers;
+        this.roster = roster;
+    }
+
+    /**
+     * Player joined the proxy or reached a (new) backend.
+     */
+    public void markViewer(Player player) {
+        newcomers.put(player.getUniqueId(), player);
+    }
+
+    public void forget(UUID playerId) {
+        newcomers.remove(playerId);
+    }
+
+    /**
+     * Runs every tab.headerFooter.interval ms.
+     */
+    public synchronized void tick() {
+        Settings settings = lang.settings();
+        if (!settings.tabHeaderFooterEnabled) return; // turned off by a reload, task being cancelled
+
+        long now = System.currentTimeMillis();
+        long lag = (lastTickAt == 0) ? 0 : Math.max(0, now - lastTickAt - settings.tabHeaderFooterInterval);
+        lastTickAt = now;
+
+        String[] h = values(settings.tabHeader, lag);
+        String[] f = values(settings.tabFooter, lag);
+        boolean changed = renderedWith != settings || !Arrays.equals(h, headerValues) || !Arrays.equals(f, footerValues);
+
+        if (changed) {
+            header = settings.tabHeader.template.render(h);
+            footer = settings.tabFooter.template.render(f);
+            renderedWith = settings;
+            headerValues = h;
+            footerValues = f;
+        }
+
+        List<Player> recipients;
+        if (changed) {
+            newcomers.clear();
+            recipients = new ArrayList<>(proxy.getAllPlayers());
+        } else if (!newcomers.isEmpty()) {
+            recipients = new ArrayList<>(newcomers.size());
+            for (UUID id : new ArrayList<>(newcomers.keySet())) {
+                Player p = newcomers.remove(id);
+                if (p != null && p.isActive()) recipients.add(p);
+            }
+        } else {
+            return;
+        }
+
+        Component sharedHeader = header;
+        Component sharedFooter = footer;
+        // The capped view writes its own "+N more" footer per viewer
+        if (settings.tabCapEnabled) {
+            fanOut.forEach(recipients, p -> p.sendPlayerListHeader(sharedHeader));
+        } else {
+            fanOut.forEach(recipients, p -> p.sendPlayerListHeaderAndFooter(sharedHeader, sharedFooter));
+        }
+    }
+
+    /**
+     * Sends everything to everyone on the next tick (something else wrote over the footer).
+     */
+    public synchronized void repaint() {
+        renderedWith = null;
+    }
+
+    /**
+     * tab.headerFooter turned off by a reload: takes the header (and footer, unless the capped view owns it) back.
+     */
+    public synchronized void clear(Settings settings) {
+        renderedWith = null;
+        newcomers.clear();
+
+        List<Player> recipients = new ArrayList<>(proxy.getAllPlayers());
+        if (settings.tabCapEnabled) {
+            fanOut.forEach(recipients, p -> p.sendPlayerListHeader(Component.empty()));
+        } else {
+            fanOut.forEach(recipients, p -> p.sendPlayerListHeaderAndFooter(Component.empty(), Component.empty()));
+        }
+    }
+
+    private String[] values(Format format, long lag) {
+        String[] values = new String[Format.KEYS.length + format.servers.length];
+        values[0] = Integer.toString(servers.total() + (roster == null ? 0 : roster.getRemoteCount()));
+        values[1] = Integer.toString(proxy.getConfiguration().getShowMaxPlayers());
+        values[2] = Integer.toString(roster == null ? 1 : roster.getProxyCount());
+        values[3] = Long.toString(lag / 10 * 10);
+        for (int i = 0; i < format.servers.length; i++) {
+            String server = format.servers[i];
+            int count = servers.count(server) + (roster == null ? 0 : roster.count(server));
+            values[Format.KEYS.length + i] = Integer.toString(count);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,483 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Players of every proxy of the network, replicated over Redis pub/sub.
+ * <p>
+ * Each proxy publishes compact deltas of its own players (join, backend switch, ping bucket, leave)
+ * and, every network.snapshotInterval seconds or on request, a full snapshot of them.
+ * Receivers keep one replica per remote proxy; epoch + seq detect restarts and lost deltas,
+ * in which case the owner is asked for a snapshot. Nothing is polled: a proxy that stops talking
+ * (no snapshot for network.remoteTimeout) is dropped.
+ * <p>
+ * Messages are handled on the subscriber thread, in publish order; they are cheap (map updates + dirty marks).
+ * The subscription is kept alive by a {@link SupervisedSubscriber}; every (re)subscribe says hello again,
+ * since whatever was published while we were away is lost.
+ */
+public final class NetworkRoster {
+
+    public static final String CHANNEL = "oreotab:network";
+
+    /**
+     * Called from the subscriber thread (or the ticker, for expired proxies).
+     */
+    public interface Listener {
+        void remoteChanged(RemotePlayer player);
+
+        void remoteLeft(UUID playerId);
+
+        /**
+         * A join/quit/switch message another proxy broadcast to its own players.
+         */
+        void remoteMessage(String kind, String name, String to, String from);
+    }
+
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final Object plugin;
+    private final RedisClient redis;
+    private final Listener listener;
+
+    private final String proxyId;
+    private final long epoch = System.currentTimeMillis();
+    private final long snapshotIntervalMillis;
+    private final long remoteTimeoutMillis;
+    private final int pingBucket;
+    private final SupervisedSubscriber listenerSupervisor;
+
+    // Outgoing sequence (guarded by this, so seq order == publish queue order)
+    private long seq;
+    private long lastSnapshotAt;
+    private volatile boolean snapshotRequested;
+    private final Map<UUID, Integer> publishedPing = new ConcurrentHashMap<>();
+
+    // Replicas: per remote proxy, plus a merged view by player (last writer wins while a player moves proxies)
+    private final Map<String, RemoteProxy> proxies = new ConcurrentHashMap<>();
+    private final Map<UUID, RemotePlayer> remotes = new ConcurrentHashMap<>();
+    // Merged view, counted per lower-cased server (see ServerIndex.key), kept in step with remotes
+    private final Map<String, AtomicInteger> perServer = new ConcurrentHashMap<>();
+
+    private volatile boolean duplicateIdWarned;
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong snapshotsReceived = new AtomicLong();
+
+    private ScheduledTask ticker;
+    private volatile JedisPubSub subscriber;
+
+    public NetworkRoster(ProxyServer proxy, Logger logger, Object plugin, RedisClient redis, Settings settings, Listener listener) {
+        this.proxy = proxy;
+        this.logger = logger;
+        this.plugin = plugin;
+        this.redis = redis;
+        this.listener = listener;
+        this.proxyId = settings.proxyId;
+        this.snapshotIntervalMillis = Math.max(1, settings.networkSnapshotInterval) * 1000L;
+        this.remoteTimeoutMillis = Math.max(settings.networkSnapshotInterval * 2L, settings.networkRemoteTimeout) * 1000L;
+        this.pingBucket = Math.max(1, settings.networkPingBucket);
+        this.listenerSupervisor = new SupervisedSubscriber(logger, "OreoTab-Network",
+                settings.subscriberMinBackoff, settings.subscriberMaxBackoff,
+                settings.subscriberPingInterval, settings.subscriberPingTimeout, new RosterSession());
+    }
+
+    public void start() {
+        listenerSupervisor.start();
+
+        ticker = proxy.getScheduler()
+                .buildTask(plugin, this::tick)
+                .delay(1, TimeUnit.SECONDS)
+                .repeat(1, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+
+        // Let the others drop our players now instead of after remoteTimeout (sent before the plugin closes Redis)
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.bye(proxyId, epoch, seq));
+        }
+
+        listenerSupervisor.stop();
+    }
+
+    /**
+     * One subscription to the roster channel; ends (and is retried) when the connection breaks.
+     */
+    private final class RosterSession implements SupervisedSubscriber.Session {
+        private volatile Connection connection;
+
+        @Override
+        public void run(SupervisedSubscriber supervisor) {
+            // A fresh instance per session: a pub/sub object is done once its connection is
+            JedisPubSub session = new JedisPubSub() {
+                @Override
+                public void onMessage(String channel, String message) {
+                    try {
+                        handle(message);
+                    } catch (Exception e) {
+                        logger.error("[Network] Failed to handle roster message: {}", message, e);
+                    }
+                }
+
+                @Override
+                public void onSubscribe(String channel, int subscribedChannels) {
+                    logger.info("[Network] Joined network as '{}' (channel {})", proxyId, channel);
+                    supervisor.connected();
+                    // Only now: answers to our hello would be lost before the subscription is active.
+                    // Again after every reconnect: our snapshot and the others' answers cover what we missed.
+                    publishHello();
+                }
+
+                @Override
+                public void onPong(String pattern) {
+                    supervisor.pong();
+                }
+            };
+            subscriber = session;
+            redis.subscribe(session, c -> connection = c, CHANNEL);
+        }
+
+        @Override
+        public void stop() {
+            JedisPubSub sub = subscriber;
+            if (sub != null && sub.isSubscribed()) {
+                sub.unsubscribe();
+            }
+        }
+
+        @Override
+        public boolean ping() {
+            JedisPubSub sub = subscriber;
+            if (sub != null && sub.isSubscribed()) sub.ping();
+            return true;
+        }
+
+        @Override
+        public void abort() {
+            Connection c = connection;
+            if (c != null) c.disconnect();
+        }
+    }
+
+    // ---- local players -> network ----
+
+    public void localJoin(Player player) {
+        int ping = bucket(player.getPing());
+        publishedPing.put(player.getUniqueId(), ping);
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.join(proxyId, epoch, ++seq,
+                    player.getUniqueId(), player.getUsername(), serverOf(player), ping));
+        }
+    }
+
+    public void localSwitch(Player player, String server) {
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.switched(proxyId, epoch, ++seq, player.getUniqueId(), server));
+        }
+    }
+
+    public void localLeave(UUID playerId) {
+        publishedPing.remove(playerId);
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.leave(proxyId, epoch, ++seq, playerId));
+        }
+    }
+
+    /**
+     * Relays a join/quit/switch message this proxy just broadcast, so the other proxies show it too.
+     */
+    public void broadcast(String kind, String name, String to, String from) {
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.broadcast(proxyId, epoch, seq, kind, name, to, from));
+        }
+    }
+
+    private synchronized void publishSnapshot() {
+        List<Object[]> players = new ArrayList<>(proxy.getPlayerCount());
+        for (Player p : proxy.getAllPlayers()) {
+            int ping = bucket(p.getPing());
+            publishedPing.put(p.getUniqueId(), ping);
+            players.add(new Object[]{p.getUniqueId(), p.getUsername(), serverOf(p), ping});
+        }
+
+        redis.publish(CHANNEL, RosterMessage.snapshot(proxyId, epoch, ++seq, players));
+        lastSnapshotAt = System.currentTimeMillis();
+        snapshotRequested = false;
+    }
+
+    private void publishHello() {
+        publishSnapshot();
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.resync(proxyId, epoch, seq, RosterMessage.ALL_PROXIES));
+        }
+    }
+
+    private void requestResync(String target, RemoteProxy state) {
+        long now = System.currentTimeMillis();
+        if (now - state.resyncRequestedAt < 5000L) return; // one request in flight is enough
+        state.resyncRequestedAt = now;
+
+        synchronized (this) {
+            redis.publish(CHANNEL, RosterMessage.resync(proxyId, epoch, seq, target));
+        }
+    }
+
+    /**
+     * Every second: periodic / requested snapshot, ping buckets that moved, proxies that went silent.
+     */
+    private void tick() {
+        try {
+            if (snapshotRequested || System.currentTimeMillis() - lastSnapshotAt >= snapshotIntervalMillis) {
+                publishSnapshot();
+            } else {
+                publishPingChanges();
+            }
+            expireSilentProxies();
+        } catch (Exception e) {
+            logger.error("[Network] Roster tick failed", e);
+        }
+    }
+
+    private void publishPingChanges() {
+        for (Player p : proxy.getAllPlayers()) {
+            int ping = bucket(p.getPing());
+            Integer previous = publishedPing.put(p.getUniqueId(), ping);
+            if (previous != null && previous != ping) {
+                synchronized (this) {
+                    redis.publish(CHANNEL, RosterMessage.ping(proxyId, epoch, ++seq, p.getUniqueId(), ping));
+                }
+            }
+        }
+    }
+
+    private void expireSilentProxies() {
+        long cutoff = System.currentTimeMillis() - remoteTimeoutMillis;
+        for (Iterator<Map.Entry<String, RemoteProxy>> it = proxies.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, RemoteProxy> e = it.next();
+            RemoteProxy state = e.getValue();
+            synchronized (state) {
+                if (state.lastSeen >= cutoff) continue;
+                logger.warn("[Network] Proxy '{}' went silent, dropping its {} players", e.getKey(), state.players.size());
+                dropAll(state);
+                it.remove();
+            }
+        }
+    }
+
+    // ---- network -> replicas ----
+
+    private void handle(String message) {
+        RosterMessage msg;
+        try {
+            msg = RosterMessage.parse(message);
+        } catch (IllegalArgumentException e) {
+            logger.warn("[Network] Invalid roster message ({}): {}", e.getMessage(), message);
+            return;
+        }
+        if (msg.proxyId.equals(proxyId)) {
+            if (msg.epoch != epoch && !duplicateIdWarned) {
+                duplicateIdWarned = true;
+                logger.warn("[Network] Another proxy uses network.proxyId '{}' - give every proxy its own id", proxyId);
+            }
+            return; // our own message
+        }
+
+        if (msg.type == RosterMessage.Type.RESYNC) {
+            if (msg.target().equals(proxyId) || msg.target().equals(RosterMessage.ALL_PROXIES)) {
+                snapshotRequested = true; // coalesced, sent by the next tick
+            }
+        }
+
+        RemoteProxy state = proxies.computeIfAbsent(msg.proxyId, k -> new RemoteProxy());
+        synchronized (state) {
+            state.lastSeen = System.currentTimeMillis();
+
+            if (state.epoch != msg.epoch) {
+                // First time we hear of it, or it restarted: whatever we had is stale
+                dropAll(state);
+                state.epoch = msg.epoch;
+                state.lastSeq = -1L;
+            }
+
+            switch (msg.type) {
+                case BYE -> {
+                    dropAll(state);
+                    proxies.remove(msg.proxyId, state);
+                }
+                case BROADCAST -> {
+                    String[] args = msg.messageArgs();
+                    listener.remoteMessage(msg.kind(), args[0], args[1], args[2]);
+                }
+                case RESYNC -> {
+                    if (state.lastSeq < 0) requestResync(msg.proxyId, state);
+                }
+                case SNAPSHOT -> applySnapshot(state, msg);
+                default -> applyDelta(state, msg);
+            }
+        }
+    }
+
+    private void applySnapshot(RemoteProxy state, RosterMessage msg) {
+        snapshotsReceived.incrementAndGet();
+
+        Map<UUID, RemotePlayer> fresh = new HashMap<>();
+        for (RemotePlayer p : msg.players()) {
+            fresh.put(p.id, p);
+        }
+
+        for (UUID id : new ArrayList<>(state.players.keySet())) {
+            if (!fresh.containsKey(id)) remove(state, id);
+        }
+        for (RemotePlayer p : fresh.values()) {
+            RemotePlayer known = state.players.get(p.id);
+            if (known == null || !sameState(known, p)) put(state, p);
+        }
+        state.lastSeq = msg.seq;
+    }
+
+    private void applyDelta(RemoteProxy state, RosterMessage msg) {
+        if (state.lastSeq >= 0 && msg.seq <= state.lastSeq) return; // already covered by a snapshot
+
+        if (state.lastSeq < 0 || msg.seq != state.lastSeq + 1) {
+            // Lost deltas (or joined mid-stream): apply what we can, the snapshot fixes the rest
+            gaps.incrementAndGet();
+            requestResync(msg.proxyId, state);
+        }
+        state.lastSeq = msg.seq;
+
+        UUID id = msg.playerId();
+        RemotePlayer known = state.players.get(id);
+        switch (msg.type) {
+            case JOIN -> put(state, msg.player());
+            case LEAVE -> remove(state, id);
+            case SWITCH -> {
+                if (known != null) put(state, known.withServer(msg.server()));
+                else requestResync(msg.proxyId, state);
+            }
+            case PING -> {
+                if (known != null) put(state, known.withPing(msg.ping()));
+                else requestResync(msg.proxyId, state);
+            }
+            default -> { }
+        }
+    }
+
+    private void put(RemoteProxy state, RemotePlayer player) {
+        state.players.put(player.id, player);
+        RemotePlayer previous = remotes.put(player.id, player);
+        if (previous != null) count(previous.server, -1);
+        count(player.server, 1);
+        listener.remoteChanged(player);
+    }
+
+    private void remove(RemoteProxy state, UUID id) {
+        RemotePlayer player = state.players.remove(id);
+        // Only if the merged view still points at this proxy's entry (the player may already be on another proxy)
+        if (player != null && remotes.remove(id, player)) {
+            count(player.server, -1);
+            listener.remoteLeft(id);
+        }
+    }
+
+    private void dropAll(RemoteProxy state) {
+        for (UUID id : new ArrayList<>(state.players.keySet())) {
+            remove(state, id);
+        }
+    }
+
+    private void count(String server, int delta) {
+        perServer.computeIfAbsent(ServerIndex.key(server), k -> new AtomicInteger()).addAndGet(delta);
+    }
+
+    private static boolean sameState(RemotePlayer a, RemotePlayer b) {
+        return a.ping == b.ping && a.username.equals(b.username)
+                && (a.server == null ? b.server == null : a.server.equals(b.server));
+    }
+
+    // ---- queries ----
+
+    /**
+     * @return the remote entry for this player, or null if they are not on another proxy
+     */
+    public RemotePlayer get(UUID playerId) {
+        return remotes.get(playerId);
+    }
+
+    /**
+     * @return live view of every player on the other proxies
+     */
+    public Collection<RemotePlayer> remotePlayers() {
+        return Collections.unmodifiableCollection(remotes.values());
+    }
+
+    public int getRemoteCount() {
+        return remotes.size();
+    }
+
+    /**
+     * @return players of the other proxies currently on this backend (case-insensitive)
+     */
+    public int count(String server) {
+        AtomicInteger count = perServer.get(ServerIndex.key(server));
+        return (count == null) ? 0 : count.get();
+    }
+
+    public int getProxyCount() {
+        return proxies.size() + 1;
+    }
+
+    public String getProxyId() {
+        return proxyId;
+    }
+
+    /**
+     * @return deltas received out of order or after a loss (each one triggers a snapshot request)
+     */
+    public long getGaps() {
+        return gaps.get();
+    }
+
+    public long getSnapshotsReceived() {
+        return snapshotsReceived.get();
+    }
+
+    private int bucket(long ping) {
+        long clamped = Math.max(0, Math.min(Integer.MAX_VALUE, ping));
+        return (int) (clamped / pingBucket * pingBucket);
+    }
+
+    private static String serverOf(Player player) {
+        return player.getCurrentServer().map(s -> s.getServerInfo().getName()).orElse(null);
+    }
+
+    private static final class RemoteProxy {
+        // All fields guarded by the instance monitor
+        long epoch = Long.MIN_VALUE;
+        long lastSeq = -1L;
+        long lastSeen;
+        long resyncRequestedAt;
+        final Map<UUID, RemotePlayer> players = new HashMap<>();
+    }
+}
@@ -2,6 +2,7 @@
 package fr.elias.oreoNetworkTabPlugin;
 
 import com.google.inject.Inject;
+import com.velocitypowered.api.command.CommandMeta;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
@@ -13,19 +14,16 @@ import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
-import com.velocitypowered.api.proxy.player.TabList;
-import com.velocitypowered.api.proxy.player.TabListEntry;
-import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
-import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Plugin(
         id = "oreo-network-tab",
@@ -39,13 +37,30 @@ public class OreoNetworkTabPlugin {
     private final Logger logger;
     private final Path dataDirectory;
     private ShardTransferHandler shardHandler;
+    private RedisClient redis;
+    private NetworkRoster roster; // other proxies of the network, null if network.enabled is false
+    private ScheduledTask metricsDump;
+    private ScheduledTask tabRotation;
+    private ScheduledTask latencyRefresh;
+    private ScheduledTask headerFooterTick;
+    private ScheduledTask floodFlush;
 
-    private final MiniMessage mm = MiniMessage.miniMessage();
     private Lang lang;
+    private TabListEngine tabs;
+    private FanOutExecutor fanOut;
+    private TabUpdateScheduler tabUpdates;
+    private volatile NetworkHeaderFooter headerFooter; // null until tab.headerFooter.enabled is true
+    private FloodAggregator flood;
+    // TAB batches and tasks running (tab.enabled, at startup or since the last reload)
+    private volatile boolean tabsStarted;
+    private LangReloader reloader;
 
     // Track previous server for switch messages
     private final Map<UUID, String> lastServer = new ConcurrentHashMap<>();
 
+    // Online players by current backend (broadcast filtering, per-server counts)
+    private final ServerIndex servers = new ServerIndex();
+
     // Used to send "join network" only once, when player actually connects to first backend
     private final Set<UUID> pendingFirstConnect = ConcurrentHashMap.newKeySet();
 
@@ -60,34 +75,86 @@ public class OreoNetworkTabPlugin {
     public void onProxyInit(ProxyInitializeEvent event) {
         this.lang = new Lang(logger, dataDirectory);
         this.lang.load();
+        Settings settings = lang.settings();
+
+        this.fanOut = new FanOutExecutor(
+                logger,
+                settings.fanoutEnabled,
+                settings.fanoutMinPlayers,
+                settings.fanoutLanes,
+                settings.fanoutThreads
+        );
+
+        // One pooled Redis client, shared by the network roster and shard transfers
+        if (settings.shardingEnabled || settings.networkEnabled) {
+            this.redis = connectRedis(settings);
+        }
+        if (settings.networkEnabled && redis != null) {
+            this.roster = new NetworkRoster(proxy, logger, this, redis, settings, new RosterListener());
+            if (settings.proxyIdGenerated) {
+                logger.warn("[Network] network.proxyId is blank, using '{}' - set a fixed id per proxy", settings.proxyId);
+            }
+        }
+
+        // Flushed even while messages.flood is off, so turning it on with a reload needs no restart
+        this.flood = new FloodAggregator(this::broadcastToAllowedPlayers);
+        scheduleFloodFlush(settings);
+
+        this.tabs = new TabListEngine(proxy, lang, fanOut, roster);
+        this.tabUpdates = new TabUpdateScheduler(
+                proxy,
+                logger,
+                this,
+                tabs,
+                lang
+        );
 
         logger.info("[OreoNetworkTab] Initialized. Data folder: {}", dataDirectory.toAbsolutePath());
 
+        // Players already online (plugin loaded late)
+        for (Player p : proxy.getAllPlayers()) {
+            servers.move(p, p.getCurrentServer().map(s -> s.getServerInfo().getName()).orElse(null));
+        }
+
         // Initialize seamless shard transfer handler (configurable!)
-        if (lang.getBool("sharding.enabled", false)) {
+        if (settings.shardingEnabled && redis == null) {
+            logger.error("[ShardTransfer] No Redis connection - seamless transfers DISABLED");
+            logger.error("[ShardTransfer] Players will see loading screens on shard transfers");
+        } else if (settings.shardingEnabled) {
             try {
-                String redisHost = lang.getString("sharding.redis.host", "localhost");
-                int redisPort = lang.getInt("sharding.redis.port", 6379);
-                String redisPassword = lang.getString("sharding.redis.password", "");
-                int preloadDelay = lang.getInt("sharding.preloadDelay", 100);
+                int preloadDelay = settings.preloadDelay;
 
                 this.shardHandler = new ShardTransferHandler(
                         proxy,
                         logger,
                         this,           // plugin
-                        redisHost,      // String
-                        redisPort,      // int
-                        redisPassword.isEmpty() ? null : redisPassword,  // String
-                        preloadDelay    // int
+                        redis,
+                        settings
                 );
 
                 // Register the shard transfer event listener
                 proxy.getEventManager().register(this, shardHandler);
 
+                CommandMeta statsMeta = proxy.getCommandManager().metaBuilder("shardstats").plugin(this).build();
+                proxy.getCommandManager().register(statsMeta, new ShardStatsCommand(shardHandler));
+
+                if (settings.metricsDumpInterval > 0) {
+                    this.metricsDump = proxy.getScheduler()
+                            .buildTask(this, this::dumpTransferMetrics)
+                            .delay(settings.metricsDumpInterval, TimeUnit.SECONDS)
+                            .repeat(settings.metricsDumpInterval, TimeUnit.SECONDS)
+                            .schedule();
+                }
+
                 logger.info("[ShardTransfer] Seamless shard transfer enabled!");
-                logger.info("[ShardTransfer] Connected to Redis at {}:{}", redisHost, redisPort);
-                logger.info("[ShardTransfer] Pre-load delay: {}ms", preloadDelay);
+                logger.info(settings.preloadAck
+                        ? "[ShardTransfer] Pre-load: waiting for ack, at most {}ms"
+                        : "[ShardTransfer] Pre-load delay: {}ms", preloadDelay);
             } catch (Exception e) {
+                if (redis != null && roster == null) {
+                    redis.close();
+                    redis = null;
+                }
                 logger.error("[ShardTransfer] Failed to initialize - seamless transfers DISABLED", e);
                 logger.error("[ShardTransfer] Players will see loading screens on shard transfers");
             }
@@ -96,23 +163,241 @@ public class OreoNetworkTabPlugin {
             logger.info("[ShardTransfer] Players will see loading screens on shard transfers");
         }
 
-        if (isTabEnabled()) {
-            updateAllTabs();
+        if (settings.tabEnabled) {
+            startTabs(settings);
+
+            if (settings.tabCapEnabled) {
+                logger.info("[OreoNetworkTab] TAB capped at {} entries per viewer.", settings.tabCapMaxEntries);
+            }
         } else {
             logger.info("[OreoNetworkTab] TAB handling disabled (tab.enabled: false).");
         }
+
+        // Reloads only swap the config snapshot and refresh what was built from it
+        this.reloader = new LangReloader(logger, lang, this::onLangReloaded);
+        CommandMeta reloadMeta = proxy.getCommandManager().metaBuilder("oreotabreload").plugin(this).build();
+        proxy.getCommandManager().register(reloadMeta, new ReloadCommand(reloader));
+        if (settings.reloadWatch) {
+            reloader.watch(settings.reloadDebounce);
+        }
+
+        // Last: snapshots from the other proxies go straight into the (now running) tab batches
+        if (roster != null) {
+            roster.start();
+        }
+    }
+
+    /**
+     * Reload thread. Templates and serversException came with the new snapshot;
+     * repeating tasks are rescheduled when their period changed (or they were turned on/off),
+     * tab entries only need rebuilding when what goes into a display name changed.
+     */
+    private void onLangReloaded(Settings previous, Settings current) {
+        if (previous.floodWindow != current.floodWindow) {
+            scheduleFloodFlush(current);
+        }
+        if (previous.tabEnabled != current.tabEnabled) {
+            if (current.tabEnabled) {
+                logger.info("[OreoNetworkTab] TAB handling enabled by reload.");
+                startTabs(current);
+            } else {
+                logger.info("[OreoNetworkTab] TAB handling disabled by reload (tab.enabled: false).");
+                stopTabs();
+            }
+            return;
+        }
+        if (!isTabEnabled()) return;
+
+        // tab.flushImmediatelyBelow is read on every change, only the batch period needs a new task
+        if (previous.tabUpdateInterval != current.tabUpdateInterval) {
+            tabUpdates.start();
+        }
+
+        boolean tasksChanged = previous.tabHeaderFooterEnabled != current.tabHeaderFooterEnabled
+                || previous.tabHeaderFooterInterval != current.tabHeaderFooterInterval
+                || previous.tabLatencyInterval != current.tabLatencyInterval
+                || previous.tabCapEnabled != current.tabCapEnabled
+                || previous.tabCapRotateInterval != current.tabCapRotateInterval;
+        if (tasksChanged) {
+            scheduleTabTasks(current);
+        }
+
+        NetworkHeaderFooter hf = headerFooter;
+        if (hf != null && previous.tabHeaderFooterEnabled && !current.tabHeaderFooterEnabled) {
+            hf.clear(current);
+        }
+        if (previous.tabCapEnabled && !current.tabCapEnabled) {
+            // The "+N more" footer is ours: take it back, the shared footer (if any) goes out on the next tick
+            tabs.clearCappedFooters();
+            if (hf != null) hf.repaint();
+        }
+
+        boolean namesChanged = previous.showServerInName != current.showServerInName
+                || !previous.unknownServerName.equals(current.unknownServerName)
+                || previous.tabCapEnabled != current.tabCapEnabled;
+        if (namesChanged) {
+            tabs.invalidateDisplayNames();
+            tabs.resyncAll();
+        }
+    }
+
+    /**
+     * Full TAB rebuild, then batches and tab tasks (startup, or tab.enabled turned on by a reload).
+     */
+    private synchronized void startTabs(Settings settings) {
+        tabs.resyncAll();
+        tabUpdates.start();
+        this.tabsStarted = true;
+        scheduleTabTasks(settings);
+    }
+
+    /**
+     * tab.enabled turned off by a reload: stops touching tab lists (entries already sent stay).
+     */
+    private synchronized void stopTabs() {
+        this.tabsStarted = false;
+        tabUpdates.stop();
+        cancelTabTasks();
+    }
+
+    /**
+     * Flushes the flood summaries every messages.flood.window ms (init, and reloads that changed the window).
+     */
+    private synchronized void scheduleFloodFlush(Settings settings) {
+        if (floodFlush != null) {
+            floodFlush.cancel();
+        }
+        this.floodFlush = proxy.getScheduler()
+                .buildTask(this, () -> flood.flush(lang.settings()))
+                .delay(settings.floodWindow, TimeUnit.MILLISECONDS)
+                .repeat(settings.floodWindow, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    /**
+     * Header/footer ticks, latency refresh and capped-view rotation, as configured in tab.*
+     * (init, and reloads that changed one of them).
+     */
+    private synchronized void scheduleTabTasks(Settings settings) {
+        cancelTabTasks();
+
+        if (settings.tabHeaderFooterEnabled) {
+            if (headerFooter == null) {
+                this.headerFooter = new NetworkHeaderFooter(proxy, lang, fanOut, servers, roster);
+            }
+            this.headerFooterTick = proxy.getScheduler()
+                    .buildTask(this, headerFooter::tick)
+                    .repeat(settings.tabHeaderFooterInterval, TimeUnit.MILLISECONDS)
+                    .schedule();
+        }
+
+        if (settings.tabLatencyInterval > 0) {
+            this.latencyRefresh = proxy.getScheduler()
+                    .buildTask(this, tabs::refreshLatencies)
+                    .delay(settings.tabLatencyInterval, TimeUnit.SECONDS)
+                    .repeat(settings.tabLatencyInterval, TimeUnit.SECONDS)
+                    .schedule();
+        }
+
+        if (settings.tabCapEnabled && settings.tabCapRotateInterval > 0) {
+            this.tabRotation = proxy.getScheduler()
+                    .buildTask(this, () -> {
+                        tabs.rotateSample();
+                        tabUpdates.requestRefresh();
+                    })
+                    .delay(settings.tabCapRotateInterval, TimeUnit.SECONDS)
+                    .repeat(settings.tabCapRotateInterval, TimeUnit.SECONDS)
+                    .schedule();
+        }
+    }
+
+    private synchronized void cancelTabTasks() {
+        if (tabRotation != null) {
+            tabRotation.cancel();
+            tabRotation = null;
+        }
+        if (latencyRefresh != null) {
+            latencyRefresh.cancel();
+            latencyRefresh = null;
+        }
+        if (headerFooterTick != null) {
+            headerFooterTick.cancel();
+            headerFooterTick = null;
+        }
+    }
+
+    private RedisClient connectRedis(Settings settings) {
+        try {
+            RedisClient client = new RedisClient(
+                    logger,
+                    settings.redisHost,
+                    settings.redisPort,
+                    settings.redisPassword.isEmpty() ? null : settings.redisPassword,
+                    settings.redisPoolSize,
+                    settings.redisTimeout,
+                    settings.redisPublishBatch,
+                    settings.redisPublishQueue
+            );
+            logger.info("[OreoNetworkTab] Connected to Redis at {}:{}", settings.redisHost, settings.redisPort);
+            return client;
+        } catch (Exception e) {
+            logger.error("[OreoNetworkTab] Could not connect to Redis at {}:{}", settings.redisHost, settings.redisPort, e);
+            if (settings.networkEnabled) {
+                logger.error("[Network] Network TAB DISABLED - only players of this proxy will be shown");
+            }
+            return null;
+        }
     }
     @Subscribe
     public void onProxyShutdown(ProxyShutdownEvent event) {
         logger.info("[OreoNetworkTab] Shutting down...");
 
+        // Reloader first: it would reschedule what is cancelled below
+        if (reloader != null) {
+            reloader.shutdown();
+        }
+        cancelTabTasks();
+        synchronized (this) {
+            if (floodFlush != null) {
+                floodFlush.cancel();
+            }
+        }
+        if (tabUpdates != null) {
+            tabUpdates.stop();
+        }
+        if (roster != null) {
+            roster.shutdown();
+        }
+        if (fanOut != null) {
+            fanOut.shutdown();
+        }
+
+        // Last transfer latency dump before the handler goes away
+        if (metricsDump != null) {
+            metricsDump.cancel();
+            dumpTransferMetrics();
+        }
         // Shutdown shard transfer handler if it was initialized
         if (shardHandler != null) {
             shardHandler.shutdown();
         }
+        if (redis != null) {
+            redis.close();
+            logger.info("[OreoNetworkTab] Redis connection pool closed");
+        }
 
         logger.info("[OreoNetworkTab] Shutdown complete");
     }
+    private void dumpTransferMetrics() {
+        if (shardHandler == null) return;
+        try {
+            Files.createDirectories(dataDirectory);
+            Files.write(dataDirectory.resolve("transfer-metrics.txt"), shardHandler.statusReport());
+        } catch (IOException e) {
+            logger.warn("[ShardTransfer] Could not write transfer-metrics.txt: {}", e.getMessage());
+        }
+    }
+
     /**
      * NOTE:
      * PostLoginEvent fires when the player authenticates on the proxy,
@@ -121,26 +406,29 @@ public class OreoNetworkTabPlugin {
      */
     @Subscribe
     public void onJoin(PostLoginEvent event) {
-        if (isTabEnabled()) updateAllTabs();
+        if (isTabEnabled()) tabUpdates.markChanged(event.getPlayer());
+        if (headerFooter != null) headerFooter.markViewer(event.getPlayer());
+        if (roster != null) roster.localJoin(event.getPlayer());
+        servers.move(event.getPlayer(), null);
         pendingFirstConnect.add(event.getPlayer().getUniqueId());
     }
 
     @Subscribe
     public void onQuit(DisconnectEvent event) {
-        if (isTabEnabled()) updateAllTabs();
-
         Player p = event.getPlayer();
+        if (isTabEnabled()) tabUpdates.markLeft(p.getUniqueId());
+        if (headerFooter != null) headerFooter.forget(p.getUniqueId());
+        if (roster != null) roster.localLeave(p.getUniqueId());
+        servers.remove(p);
 
         // Broadcast quit network (to allowed recipients)
-        if (lang != null && lang.getBool("messages.quit.enabled", true)) {
-            String quitFmt = lang.getMini(
-                    "messages.quit.format",
-                    "<gradient:#FF1493:#00FF7F>-</gradient> <white>{name}</white> <gray>left the network</gray>"
-            );
+        Settings settings = settings();
+        if (settings != null && settings.quitEnabled) {
+            String from = p.getCurrentServer()
+                    .map(s -> s.getServerInfo().getName())
+                    .orElse(settings.unknownServerName);
 
-            broadcastMini(braceToMiniPlaceholders(quitFmt),
-                    Placeholder.parsed("name", p.getUsername())
-            );
+            announce("quit", settings.quitMessage, p.getUsername(), settings.unknownServerName, from);
         }
 
         lastServer.remove(p.getUniqueId());
@@ -161,34 +449,30 @@ public class OreoNetworkTabPlugin {
 
     @Subscribe
     public void onServerSwitch(ServerPostConnectEvent event) {
-        if (isTabEnabled()) updateAllTabs();
-
         Player p = event.getPlayer();
+        if (isTabEnabled()) tabUpdates.markChanged(p);
+        if (headerFooter != null) headerFooter.markViewer(p);
+
         String unknown = getUnknownServerName();
 
         String to = p.getCurrentServer()
                 .map(s -> s.getServerInfo().getName())
                 .orElse(unknown);
+        servers.move(p, to);
+        if (roster != null) roster.localSwitch(p, to);
+
+        Settings settings = settings();
 
         // 1) First server connect => fire JOIN message once (if enabled)
         if (pendingFirstConnect.remove(p.getUniqueId())) {
-            if (lang != null && lang.getBool("messages.join.enabled", true)) {
-                String joinFmt = lang.getMini(
-                        "messages.join.format",
-                        "<gradient:#FF1493:#00FF7F>+</gradient> <white>{name}</white> <gray>joined the network</gray>"
-                );
-
-                broadcastMini(braceToMiniPlaceholders(joinFmt),
-                        Placeholder.parsed("name", p.getUsername()),
-                        Placeholder.parsed("to", to),
-                        Placeholder.parsed("from", unknown)
-                );
+            if (settings != null && settings.joinEnabled) {
+                announce("join", settings.joinMessage, p.getUsername(), to, unknown);
             }
             return; // do not also show switch for first connect
         }
 
         // 2) Switch message (optional)
-        if (lang == null || !lang.getBool("messages.switch.enabled", false)) return;
+        if (settings == null || !settings.switchEnabled) return;
 
         String from = lastServer.getOrDefault(p.getUniqueId(), unknown);
 
@@ -196,37 +480,65 @@ public class OreoNetworkTabPlugin {
         if (from.equalsIgnoreCase(unknown)) return;
         if (from.equalsIgnoreCase(to)) return;
 
-        String fmt = lang.getMini(
-                "messages.switch.format",
-                "<gray>{name}</gray> <dark_gray>»</dark_gray> <white>{to}</white>"
-        );
-
-        broadcastMini(braceToMiniPlaceholders(fmt),
-                Placeholder.parsed("name", p.getUsername()),
-                Placeholder.parsed("to", to),
-                Placeholder.parsed("from", from)
-        );
+        announce("switch", settings.switchMessage, p.getUsername(), to, from);
     }
 
     /**
-     * Broadcast to all players on the proxy (cross-server),
-     * optionally excluding recipients that are currently on serversException list.
+     * Broadcasts locally, and relays to the other proxies (which render it with their own lang.yml).
+     * During a join/quit storm the local message may be folded into the next flood summary;
+     * the relay always goes out, each proxy aggregates what it shows.
      */
-    private void broadcastMini(String mini) {
-        Component c = mm.deserialize(mini);
-        broadcastToAllowedPlayers(c);
+    private void announce(String kind, MessageTemplate template, String name, String to, String from) {
+        if (flood.offer(kind, settings())) {
+            broadcastToAllowedPlayers(template.render(name, to, from));
+        }
+        if (roster != null) roster.broadcast(kind, name, to, from);
     }
 
-    private void broadcastMini(String mini, TagResolver... resolvers) {
-        Component c = mm.deserialize(mini, resolvers);
-        broadcastToAllowedPlayers(c);
+    /**
+     * A join/quit/switch message relayed by another proxy.
+     */
+    private void showNetworkMessage(String kind, String name, String to, String from) {
+        Settings settings = settings();
+        if (settings == null) return;
+
+        MessageTemplate template = switch (kind) {
+            case "join" -> settings.joinEnabled ? settings.joinMessage : null;
+            case "quit" -> settings.quitEnabled ? settings.quitMessage : null;
+            case "switch" -> settings.switchEnabled ? settings.switchMessage : null;
+            default -> null;
+        };
+        if (template != null && flood.offer(kind, settings)) {
+            broadcastToAllowedPlayers(template.render(name, to, from));
+        }
     }
 
-    private void broadcastToAllowedPlayers(Component component) {
-        for (Player pl : proxy.getAllPlayers()) {
-            if (isRecipientExcepted(pl)) continue;
-            pl.sendMessage(component);
+    /**
+     * Broadcast to all players on the proxy (cross-server),
+     * optionally excluding recipients that are currently on serversException list.
+     * Package-private for the benchmarks (src/jmh).
+     */
+    void broadcastToAllowedPlayers(Component component) {
+        Settings settings = settings();
+        if (settings == null) return;
+
+        boolean sent = fanOut.runIfSerial(servers.total(), () -> {
+            for (ServerIndex.Bucket bucket : servers.buckets()) {
+                if (isBucketExcepted(bucket, settings)) continue;
+                for (Player pl : bucket.players) {
+                    pl.sendMessage(component);
+                }
+            }
+        });
+        if (sent) return;
+
+        // Big network: collect recipients and let the fan-out executor send in parallel (fire and forget)
+        List<Player> recipients = new ArrayList<>(servers.total());
+        for (ServerIndex.Bucket bucket : servers.buckets()) {
+            if (isBucketExcepted(bucket, settings)) continue;
+            recipients.addAll(bucket.players);
         }
+        fanOut.forEach(recipients, pl -> pl.sendMessage(component));
     }
 
     /**
@@ -234,101 +546,48 @@ public class OreoNetworkTabPlugin {
      * If "serversException" contains the player's current server, they do NOT receive network messages.
      * Example use-case: do not spam lobby with network join/quit.
      */
-    private boolean isRecipientExcepted(Player recipient) {
-        if (lang == null) return false;
-
-        List<String> except = lang.getStringList("serversException");
-        if (except == null || except.isEmpty()) return false;
-
-        String srv = recipient.getCurrentServer()
-                .map(cs -> cs.getServerInfo().getName())
-                .orElse(getUnknownServerName());
+    private boolean isBucketExcepted(ServerIndex.Bucket bucket, Settings settings) {
+        if (settings.serversException.isEmpty()) return false;
 
-        for (String s : except) {
-            if (s != null && s.equalsIgnoreCase(srv)) return true;
-        }
-        return false;
+        // Players not on a backend yet count as being on tab.unknownServerName
+        if (bucket.key.equals(ServerIndex.NO_SERVER)) return settings.isServerExcepted(settings.unknownServerName);
+        return settings.serversException.contains(bucket.key);
     }
 
     /**
-     * Converts {name}/{to}/{from} placeholders (YAML style) into MiniMessage placeholders (<name>/<to>/<from>).
+     * @return current config snapshot, or null before onProxyInit
      */
-    private String braceToMiniPlaceholders(String s) {
-        if (s == null || s.isEmpty()) return s;
-        return s.replace("{name}", "<name>")
-                .replace("{to}", "<to>")
-                .replace("{from}", "<from>");
+    Settings settings() {
+        return (lang == null) ? null : lang.settings();
     }
 
-    /**
-     * Updates TAB for all players. FULLY disabled when tab.enabled: false.
-     */
-    private void updateAllTabs() {
-        if (!isTabEnabled()) return;
-
-        Collection<Player> players = proxy.getAllPlayers();
-
-        for (Player viewer : players) {
-            TabList tab = viewer.getTabList();
-
-            // This is what overrides other tab systems:
-            tab.clearAll();
-
-            for (Player target : players) {
-                addOrUpdateEntry(viewer, target);
-            }
-        }
+    private boolean isTabEnabled() {
+        Settings settings = settings();
+        return tabsStarted && settings != null && settings.tabEnabled;
     }
 
-    private void addOrUpdateEntry(Player viewer, Player target) {
-        if (!isTabEnabled()) return;
-
-        TabList tab = viewer.getTabList();
-
-        Optional<TabListEntry> existing = tab.getEntry(target.getUniqueId());
-        existing.ifPresent(entry -> tab.removeEntry(entry.getProfile().getId()));
-
-        String unknown = getUnknownServerName();
-        String serverName = target.getCurrentServer()
-                .map(conn -> conn.getServerInfo().getName())
-                .orElse(unknown);
+    private String getUnknownServerName() {
+        Settings settings = settings();
+        return (settings == null) ? "unknown" : settings.unknownServerName;
+    }
 
-        boolean showServer = lang != null && lang.getBool("tab.showServerInName", true);
-
-        Component displayName;
-        if (showServer) {
-            displayName = Component.text()
-                    .append(Component.text(target.getUsername(), NamedTextColor.WHITE))
-                    .append(Component.space())
-                    .append(Component.text("(", NamedTextColor.DARK_GRAY))
-                    .append(Component.text(serverName, NamedTextColor.GRAY))
-                    .append(Component.text(")", NamedTextColor.DARK_GRAY))
-                    .build();
-        } else {
-            displayName = Component.text(target.getUsername(), NamedTextColor.WHITE);
+    /**
+     * Feeds the replicated roster into the tab batches and the local chat.
+     */
+    private final class RosterListener implements NetworkRoster.Listener {
+        @Override
+        public void remoteChanged(RemotePlayer player) {
+            if (isTabEnabled()) tabUpdates.markRemoteChanged(player);
         }
 
-        GameProfile profile = target.getGameProfile();
-        int ping = (int) Math.max(0, Math.min(Integer.MAX_VALUE, target.getPing()));
-
-        TabListEntry entry = TabListEntry.builder()
-                .tabList(tab)
-                .profile(profile)
-                .displayName(displayName)
-                .latency(ping)
-                .gameMode(0)
-                .listed(true)
-                .showHat(true)
-                .build();
-
-        tab.addEntry(entry);
-    }
-
-    private boolean isTabEnabled() {
-        return lang != null && lang.getBool("tab.enabled", true);
-    }
+        @Override
+        public void remoteLeft(UUID playerId) {
+            if (isTabEnabled()) tabUpdates.markRemoteLeft(playerId);
+        }
 
-    private String getUnknownServerName() {
-        return (lang == null) ? "unknown" : lang.getString("tab.unknownServerName", "unknown");
+        @Override
+        public void remoteMessage(String kind, String name, String to, String from) {
+            showNetworkMessage(kind, name, to, from);
+        }
     }
 }
@@ -0,0 +1,57 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A shard transfer waiting for its chunk pre-load (then for the player's ServerPreConnect).
+ */
+public final class PendingTransfer {
+
+    final Player player;
+    final RegisteredServer target;
+    final String targetShard;
+    final double x, y, z;
+    final long createdAtMillis = System.currentTimeMillis();
+
+    // Timeline (System.nanoTime(), 0 = phase not reached yet), see TransferMetrics
+    final long receivedAtNanos;
+    volatile long preloadPublishedAtNanos;
+    volatile long connectRequestedAtNanos;
+    volatile long preConnectAtNanos;
+
+    // Ack, timeout and supersede race for the transfer: only the first one to release it wins
+    private final AtomicBoolean released = new AtomicBoolean();
+    volatile ScheduledTask timeout;
+
+    PendingTransfer(Player player, RegisteredServer target, String targetShard, double x, double y, double z,
+                    long receivedAtNanos) {
+        this.player = player;
+        this.target = target;
+        this.targetShard = targetShard;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.receivedAtNanos = receivedAtNanos;
+    }
+
+    boolean release() {
+        return released.compareAndSet(false, true);
+    }
+
+    boolean isReleased() {
+        return released.get();
+    }
+
+    /**
+     * Makes sure this transfer never fires (superseded, expired or evicted).
+     */
+    void cancel() {
+        release();
+        ScheduledTask task = timeout;
+        if (task != null) task.cancel();
+    }
+}
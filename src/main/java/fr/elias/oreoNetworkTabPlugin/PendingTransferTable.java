@@ -0,0 +1,127 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pending shard transfers, one per player.
+ * <ul>
+ *   <li>latest request wins: a new request for the same player cancels the previous one (and its scheduled task)</li>
+ *   <li>entries older than the TTL are dropped by {@link #sweep()} (transfers that never reached ServerPreConnect)</li>
+ *   <li>hard size cap: the oldest entry is evicted when a misbehaving shard floods us</li>
+ * </ul>
+ */
+public final class PendingTransferTable {
+
+    private final Map<UUID, PendingTransfer> byPlayer = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public PendingTransferTable(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    public void put(UUID playerId, PendingTransfer transfer) {
+        PendingTransfer previous = byPlayer.put(playerId, transfer);
+        if (previous != null && previous != transfer) {
+            previous.cancel();
+            superseded.incrementAndGet();
+            return; // same player: size did not grow
+        }
+
+        if (byPlayer.size() > maxSize) {
+            evictOldest();
+        }
+    }
+
+    public PendingTransfer get(UUID playerId) {
+        return byPlayer.get(playerId);
+    }
+
+    public PendingTransfer remove(UUID playerId) {
+        return byPlayer.remove(playerId);
+    }
+
+    /**
+     * Removes the entry only if it is still this transfer (a newer request may have replaced it).
+     */
+    public boolean remove(UUID playerId, PendingTransfer transfer) {
+        return byPlayer.remove(playerId, transfer);
+    }
+
+    /**
+     * Drops entries older than the TTL.
+     *
+     * @return number of expired entries
+     */
+    public int sweep() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        int count = 0;
+
+        for (Iterator<Map.Entry<UUID, PendingTransfer>> it = byPlayer.entrySet().iterator(); it.hasNext(); ) {
+            PendingTransfer t = it.next().getValue();
+            if (t.createdAtMillis < cutoff) {
+                it.remove();
+                t.cancel();
+                count++;
+            }
+        }
+
+        expired.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Cancels and drops everything (shutdown).
+     *
+     * @return number of entries dropped
+     */
+    public int clear() {
+        int count = 0;
+        for (Iterator<PendingTransfer> it = byPlayer.values().iterator(); it.hasNext(); ) {
+            it.next().cancel();
+            it.remove();
+            count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        return byPlayer.size();
+    }
+
+    public long getSuperseded() {
+        return superseded.get();
+    }
+
+    public long getExpired() {
+        return expired.get();
+    }
+
+    public long getEvicted() {
+        return evicted.get();
+    }
+
+    private void evictOldest() {
+        // Only reached when the cap is exceeded, so a linear scan is fine
+        Map.Entry<UUID, PendingTransfer> oldest = null;
+        for (Map.Entry<UUID, PendingTransfer> e : byPlayer.entrySet()) {
+            if (oldest == null || e.getValue().createdAtMillis < oldest.getValue().createdAtMillis) {
+                oldest = e;
+            }
+        }
+
+        if (oldest != null && byPlayer.remove(oldest.getKey(), oldest.getValue())) {
+            oldest.getValue().cancel();
+            evicted.incrementAndGet();
+        }
+    }
+}
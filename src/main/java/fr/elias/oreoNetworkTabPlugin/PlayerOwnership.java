@@ -0,0 +1,149 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Which proxy each player is on, published in Redis for the Paper side (sharding.routing.mode: owned).
+ * Key "oreotab:owner:&lt;uuid&gt;" holds the proxy id and expires after ownerTtl seconds unless refreshed,
+ * so the players of a proxy that died stop being routed to it on their own.
+ * <p>
+ * Joins and quits are queued and written by the scheduler in one pipeline: event threads never wait on Redis.
+ * A quit only deletes the key if it still names this proxy (the player may already be on another one).
+ */
+public final class PlayerOwnership {
+
+    public static final String KEY_PREFIX = "oreotab:owner:";
+
+    // Deletes the key only while it still names this proxy
+    private static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    // A player who just joined is routable after at most this long
+    private static final long FLUSH_MILLIS = 250L;
+
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final RedisClient redis;
+    private final String proxyId;
+    private final SetParams claimParams;
+    private final long refreshEveryMillis;
+
+    // Joins and quits in event order (a quick quit + rejoin must end claimed)
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private long lastRefreshAt; // flusher only
+    private ScheduledTask flusher;
+
+    public PlayerOwnership(ProxyServer proxy, Logger logger, Object plugin, RedisClient redis, Settings settings) {
+        this.proxy = proxy;
+        this.logger = logger;
+        this.redis = redis;
+        this.proxyId = settings.proxyId;
+        this.claimParams = SetParams.setParams().ex(settings.routingOwnerTtl);
+        // Several refreshes per TTL, so one failed write does not expire anybody
+        this.refreshEveryMillis = settings.routingOwnerTtl * 1000L / 3;
+
+        this.flusher = proxy.getScheduler()
+                .buildTask(plugin, this::flush)
+                .repeat(FLUSH_MILLIS, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    /**
+     * @return the Redis key naming the proxy of this player
+     */
+    public static String key(UUID playerId) {
+        return KEY_PREFIX + playerId;
+    }
+
+    public void claim(UUID playerId) {
+        changes.add(new Change(playerId, true));
+    }
+
+    public void release(UUID playerId) {
+        changes.add(new Change(playerId, false));
+    }
+
+    private void flush() {
+        long now = System.currentTimeMillis();
+        boolean refresh = now - lastRefreshAt >= refreshEveryMillis;
+        if (!refresh && changes.isEmpty()) return;
+
+        try (AbstractPipeline pipeline = redis.pool().pipelined()) {
+            if (refresh) {
+                for (Player p : proxy.getAllPlayers()) {
+                    pipeline.set(key(p.getUniqueId()), proxyId, claimParams);
+                }
+                lastRefreshAt = now;
+            }
+
+            Change change;
+            while ((change = changes.poll()) != null) {
+                if (change.claim) {
+                    pipeline.set(key(change.playerId), proxyId, claimParams);
+                } else {
+                    pipeline.eval(RELEASE_SCRIPT, List.of(key(change.playerId)), List.of(proxyId));
+                }
+            }
+            pipeline.sync();
+        } catch (Exception e) {
+            if (writeFailures.incrementAndGet() % 100 == 1) {
+                logger.warn("[ShardTransfer] Could not update player ownership in Redis: {}", e.getMessage());
+            }
+            // Rewrite every claim on the next flush (lost releases just expire)
+            lastRefreshAt = 0L;
+        }
+    }
+
+    /**
+     * @return flushes that failed (their changes were retried by a full refresh)
+     */
+    public long getWriteFailures() {
+        return writeFailures.get();
+    }
+
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.cancel();
+            flusher = null;
+        }
+
+        // Our players go down with us: senders can fall back now instead of after ownerTtl
+        try (AbstractPipeline pipeline = redis.pool().pipelined()) {
+            for (Player p : proxy.getAllPlayers()) {
+                pipeline.eval(RELEASE_SCRIPT, List.of(key(p.getUniqueId())), List.of(proxyId));
+            }
+            Change change;
+            while ((change = changes.poll()) != null) {
+                if (!change.claim) {
+                    pipeline.eval(RELEASE_SCRIPT, List.of(key(change.playerId)), List.of(proxyId));
+                }
+            }
+            pipeline.sync();
+        } catch (Exception e) {
+            logger.warn("[ShardTransfer] Could not release player ownership: {}", e.getMessage());
+        }
+    }
+
+    private static final class Change {
+        final UUID playerId;
+        final boolean claim;
+
+        Change(UUID playerId, boolean claim) {
+            this.playerId = playerId;
+            this.claim = claim;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.slf4j.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe Redis access for the plugin.
+ * <p>
+ * Commands go through a connection pool (a single {@code Jedis} is not thread-safe and never reconnects).
+ * Publishes are queued and sent by one publisher thread: whatever piles up during a burst
+ * goes out as a single pipeline instead of one round-trip per message.
+ */
+public final class RedisClient implements AutoCloseable {
+
+    private final Logger logger;
+    private final JedisPooled pool;
+    private final BlockingQueue<Outgoing> outbox;
+    private final int maxBatch;
+    private final Thread publisher;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+
+    public RedisClient(Logger logger, String host, int port, String password,
+                       int poolSize, int timeoutMillis, int maxBatch, int queueCapacity) {
+        this.logger = logger;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.outbox = new ArrayBlockingQueue<>(Math.max(16, queueCapacity));
+
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(Math.max(2, poolSize)); // subscribers hold one connection each
+        poolConfig.setMaxIdle(Math.max(2, poolSize));
+        poolConfig.setTestWhileIdle(true);
+
+        DefaultJedisClientConfig.Builder clientConfig = DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(timeoutMillis)
+                .socketTimeoutMillis(timeoutMillis)
+                .clientName("OreoNetworkTab");
+        if (password != null && !password.isEmpty()) {
+            clientConfig.password(password);
+        }
+
+        this.pool = new JedisPooled(poolConfig, new HostAndPort(host, port), clientConfig.build());
+
+        // Fail fast (like the old direct connection did) if Redis is unreachable or auth is wrong
+        pool.ping();
+
+        this.publisher = new Thread(this::publishLoop, "OreoTab-Redis-Publisher");
+        this.publisher.setDaemon(true);
+        this.publisher.start();
+    }
+
+    /**
+     * Queues a publish; never blocks the caller. Dropped (and counted) if the outbox is full.
+     */
+    public void publish(String channel, String message) {
+        if (!outbox.offer(new Outgoing(channel, message))) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                logger.warn("[Redis] Publish queue full, dropping messages ({} dropped so far)", dropped.get());
+            }
+        }
+    }
+
+    /**
+     * Blocks the calling thread until the subscriber is unsubscribed or the connection breaks.
+     * The subscription's connection is handed out first, so another thread can close it
+     * (a subscribed connection never times out on its own).
+     */
+    public void subscribe(JedisPubSub pubSub, Consumer<Connection> onConnection, String... channels) {
+        try (Connection connection = pool.getPool().getResource()) {
+            onConnection.accept(connection);
+            pubSub.proceed(connection, channels);
+        }
+    }
+
+    /**
+     * Binary variant of {@link #subscribe(JedisPubSub, Consumer, String...)}.
+     */
+    public void subscribe(BinaryJedisPubSub pubSub, Consumer<Connection> onConnection, byte[]... channels) {
+        try (Connection connection = pool.getPool().getResource()) {
+            onConnection.accept(connection);
+            pubSub.proceed(connection, channels);
+        }
+    }
+
+    /**
+     * Direct pooled access for one-off commands.
+     */
+    public JedisPooled pool() {
+        return pool;
+    }
+
+    public int getQueuedPublishes() {
+        return outbox.size();
+    }
+
+    public long getDroppedPublishes() {
+        return dropped.get();
+    }
+
+    private void publishLoop() {
+        List<Outgoing> batch = new ArrayList<>(maxBatch);
+
+        while (running || !outbox.isEmpty()) {
+            try {
+                Outgoing first = outbox.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                outbox.drainTo(batch, maxBatch - 1);
+
+                if (batch.size() == 1) {
+                    pool.publish(first.channel, first.message);
+                } else {
+                    try (AbstractPipeline pipeline = pool.pipelined()) {
+                        for (Outgoing o : batch) {
+                            pipeline.publish(o.channel, o.message);
+                        }
+                        pipeline.sync();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("[Redis] Failed to publish {} message(s)", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            // Let the publisher flush what is already queued
+            publisher.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publisher.interrupt();
+
+        try {
+            pool.close();
+        } catch (Exception e) {
+            logger.error("[Redis] Error closing connection pool", e);
+        }
+    }
+
+    private static final class Outgoing {
+        final String channel;
+        final String message;
+
+        Outgoing(String channel, String message) {
+            this.channel = channel;
+            this.message = message;
+        }
+    }
+}
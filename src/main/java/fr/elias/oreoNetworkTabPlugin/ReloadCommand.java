@@ -0,0 +1,37 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * /oreotabreload: re-reads lang.yml in the background, without a proxy restart.
+ */
+public final class ReloadCommand implements SimpleCommand {
+
+    public static final String PERMISSION = "oreonetworktab.reload";
+
+    private final LangReloader reloader;
+
+    public ReloadCommand(LangReloader reloader) {
+        this.reloader = reloader;
+    }
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        reloader.reload().whenComplete((ok, error) -> {
+            if (error == null && ok) {
+                source.sendMessage(Component.text("lang.yml reloaded.", NamedTextColor.GREEN));
+            } else {
+                source.sendMessage(Component.text("lang.yml was not reloaded (invalid or empty), see the console.", NamedTextColor.RED));
+            }
+        });
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission(PERMISSION);
+    }
+}
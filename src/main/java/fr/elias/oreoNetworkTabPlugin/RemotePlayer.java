@@ -0,0 +1,40 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.util.GameProfile;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A player connected to another proxy of the network, as replicated by {@link NetworkRoster}.
+ * Immutable: every change replaces the instance.
+ */
+public final class RemotePlayer {
+
+    public final UUID id;
+    public final String username;
+    // Backend name, or null while the player is between login and their first backend
+    public final String server;
+    // Ping rounded to network.pingBucket, so small jitter doesn't generate traffic
+    public final int ping;
+    public final String proxyId;
+    // Synthetic profile for the tab entry (no skin textures: they would make every delta ~1KB)
+    public final GameProfile profile;
+
+    public RemotePlayer(UUID id, String username, String server, int ping, String proxyId) {
+        this.id = id;
+        this.username = username;
+        this.server = server;
+        this.ping = ping;
+        this.proxyId = proxyId;
+        this.profile = new GameProfile(id, username, List.of());
+    }
+
+    public RemotePlayer withServer(String server) {
+        return new RemotePlayer(id, username, server, ping, proxyId);
+    }
+
+    public RemotePlayer withPing(int ping) {
+        return new RemotePlayer(id, username, server, ping, proxyId);
+    }
+}
@@ -0,0 +1,209 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One message of the network roster channel ({@link NetworkRoster}): a single line, fields separated by '|'.
+ * <pre>
+ * type|proxyId|epoch|seq|body
+ *
+ * J  uuid|name|server|ping             player joined this proxy (server "-" = no backend yet)
+ * S  uuid|server                       player reached a (new) backend
+ * P  uuid|ping                         ping bucket changed
+ * L  uuid                              player left this proxy
+ * F  uuid,name,server,ping;...         full roster of the proxy as of seq (replaces what receivers had)
+ * R  target                            please publish a snapshot (target proxy id, "*" = everyone)
+ * X                                    proxy shutting down
+ * M  kind|name|to|from                 network join/quit/switch message (kind = join, quit, switch)
+ * </pre>
+ * epoch changes on every proxy restart; seq grows by one per J/S/P/L/F, so receivers detect lost deltas.
+ * R, X and M carry the current seq without consuming one.
+ */
+public final class RosterMessage {
+
+    public enum Type {
+        JOIN('J'), SWITCH('S'), PING('P'), LEAVE('L'), SNAPSHOT('F'), RESYNC('R'), BYE('X'), BROADCAST('M');
+
+        final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        /**
+         * @return true if this type changes the roster (and consumes a seq)
+         */
+        public boolean isDelta() {
+            return this == JOIN || this == SWITCH || this == PING || this == LEAVE || this == SNAPSHOT;
+        }
+
+        static Type of(char code) {
+            for (Type t : values()) {
+                if (t.code == code) return t;
+            }
+            throw new IllegalArgumentException("Unknown roster message type: " + code);
+        }
+    }
+
+    public static final String ALL_PROXIES = "*";
+    private static final String NO_SERVER = "-";
+
+    public final Type type;
+    public final String proxyId;
+    public final long epoch;
+    public final long seq;
+    // Type specific fields, see the table above
+    private final String[] body;
+
+    private RosterMessage(Type type, String proxyId, long epoch, long seq, String[] body) {
+        this.type = type;
+        this.proxyId = proxyId;
+        this.epoch = epoch;
+        this.seq = seq;
+        this.body = body;
+    }
+
+    /**
+     * @throws IllegalArgumentException on a malformed message
+     */
+    public static RosterMessage parse(String message) {
+        String[] parts = message.split("\\|", -1);
+        if (parts.length < 5 || parts[0].length() != 1) {
+            throw new IllegalArgumentException("Invalid roster message: " + message);
+        }
+
+        Type type = Type.of(parts[0].charAt(0));
+        String[] body = new String[parts.length - 4];
+        System.arraycopy(parts, 4, body, 0, body.length);
+
+        int expected = switch (type) {
+            case JOIN, BROADCAST -> 4;
+            case SWITCH, PING -> 2;
+            case LEAVE, SNAPSHOT, RESYNC, BYE -> 1; // BYE: a single empty field
+        };
+        if (body.length != expected) {
+            throw new IllegalArgumentException("Invalid roster message: " + message);
+        }
+
+        // NumberFormatException is an IllegalArgumentException
+        return new RosterMessage(type, parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), body);
+    }
+
+    // ---- accessors (valid for the types that carry the field) ----
+
+    /** J, S, P, L */
+    public UUID playerId() {
+        return UUID.fromString(body[0]);
+    }
+
+    /** J */
+    public RemotePlayer player() {
+        return new RemotePlayer(playerId(), body[1], server(body[2]), Integer.parseInt(body[3]), proxyId);
+    }
+
+    /** S */
+    public String server() {
+        return server(body[1]);
+    }
+
+    /** P */
+    public int ping() {
+        return Integer.parseInt(body[1]);
+    }
+
+    /** F */
+    public List<RemotePlayer> players() {
+        List<RemotePlayer> out = new ArrayList<>();
+        if (body[0].isEmpty()) return out;
+
+        for (String entry : body[0].split(";")) {
+            String[] f = entry.split(",", -1);
+            if (f.length != 4) throw new IllegalArgumentException("Invalid roster snapshot entry: " + entry);
+            out.add(new RemotePlayer(UUID.fromString(f[0]), f[1], server(f[2]), Integer.parseInt(f[3]), proxyId));
+        }
+        return out;
+    }
+
+    /** R */
+    public String target() {
+        return body[0];
+    }
+
+    /** M: join, quit or switch */
+    public String kind() {
+        return body[0];
+    }
+
+    /** M */
+    public String[] messageArgs() {
+        return new String[]{body[1], body[2], body[3]};
+    }
+
+    // ---- encoding ----
+
+    public static String join(String proxyId, long epoch, long seq, UUID id, String name, String server, int ping) {
+        return header(Type.JOIN, proxyId, epoch, seq) + id + '|' + clean(name) + '|' + serverField(server) + '|' + ping;
+    }
+
+    public static String switched(String proxyId, long epoch, long seq, UUID id, String server) {
+        return header(Type.SWITCH, proxyId, epoch, seq) + id + '|' + serverField(server);
+    }
+
+    public static String ping(String proxyId, long epoch, long seq, UUID id, int ping) {
+        return header(Type.PING, proxyId, epoch, seq) + id + '|' + ping;
+    }
+
+    public static String leave(String proxyId, long epoch, long seq, UUID id) {
+        return header(Type.LEAVE, proxyId, epoch, seq) + id;
+    }
+
+    /**
+     * @param players entries as {uuid, name, server (nullable), ping}
+     */
+    public static String snapshot(String proxyId, long epoch, long seq, List<Object[]> players) {
+        StringBuilder sb = new StringBuilder(header(Type.SNAPSHOT, proxyId, epoch, seq));
+        boolean first = true;
+        for (Object[] p : players) {
+            if (!first) sb.append(';');
+            first = false;
+            sb.append(p[0]).append(',').append(clean((String) p[1])).append(',')
+                    .append(serverField((String) p[2])).append(',').append(p[3]);
+        }
+        return sb.toString();
+    }
+
+    public static String resync(String proxyId, long epoch, long seq, String target) {
+        return header(Type.RESYNC, proxyId, epoch, seq) + target;
+    }
+
+    public static String bye(String proxyId, long epoch, long seq) {
+        return header(Type.BYE, proxyId, epoch, seq);
+    }
+
+    public static String broadcast(String proxyId, long epoch, long seq, String kind, String name, String to, String from) {
+        return header(Type.BROADCAST, proxyId, epoch, seq) + kind + '|' + clean(name) + '|' + clean(to) + '|' + clean(from);
+    }
+
+    private static String header(Type type, String proxyId, long epoch, long seq) {
+        return String.valueOf(type.code) + '|' + proxyId + '|' + epoch + '|' + seq + '|';
+    }
+
+    private static String serverField(String server) {
+        return (server == null) ? NO_SERVER : clean(server);
+    }
+
+    private static String server(String field) {
+        return NO_SERVER.equals(field) ? null : field;
+    }
+
+    /**
+     * Separators can't appear in usernames; server names come from velocity.toml and are replaced defensively.
+     */
+    private static String clean(String s) {
+        if (s == null) return "";
+        if (s.indexOf('|') < 0 && s.indexOf(',') < 0 && s.indexOf(';') < 0) return s;
+        return s.replace('|', '_').replace(',', '_').replace(';', '_');
+    }
+}
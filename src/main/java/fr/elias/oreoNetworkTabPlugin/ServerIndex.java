@@ -0,0 +1,95 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live index of online players by current backend, maintained from the plugin's connection events.
+ * Lets broadcasts skip whole excluded servers instead of resolving every recipient's server,
+ * and gives per-server counts for free.
+ */
+public final class ServerIndex {
+
+    // Players on the proxy that haven't reached a backend yet
+    public static final String NO_SERVER = "";
+
+    // lower-cased server name -> bucket
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // player -> key of the bucket they are in
+    private final Map<UUID, String> serverOf = new ConcurrentHashMap<>();
+
+    /**
+     * Moves the player to the given server's bucket (null = no backend yet).
+     * Runs inside the player's map entry, so concurrent events for one player apply one after the other.
+     */
+    public void move(Player player, String serverName) {
+        String key = key(serverName);
+        serverOf.compute(player.getUniqueId(), (id, old) -> {
+            if (old != null && !old.equals(key)) {
+                Bucket previous = buckets.get(old);
+                if (previous != null) previous.players.remove(player);
+            }
+            buckets.computeIfAbsent(key, k -> new Bucket(k, serverName == null ? NO_SERVER : serverName))
+                    .players.add(player);
+            return key;
+        });
+    }
+
+    public void remove(Player player) {
+        serverOf.compute(player.getUniqueId(), (id, old) -> {
+            // Every bucket, not just the recorded one: never leaves a stale entry behind whatever ran before
+            for (Bucket bucket : buckets.values()) {
+                bucket.players.remove(player);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return lower-cased key of the player's current server, {@link #NO_SERVER} before their first backend, or null if unknown
+     */
+    public String serverKeyOf(UUID playerId) {
+        return serverOf.get(playerId);
+    }
+
+    public int count(String serverName) {
+        Bucket bucket = buckets.get(key(serverName));
+        return (bucket == null) ? 0 : bucket.players.size();
+    }
+
+    public int total() {
+        return serverOf.size();
+    }
+
+    public Collection<Bucket> buckets() {
+        return buckets.values();
+    }
+
+    public void clear() {
+        buckets.clear();
+        serverOf.clear();
+    }
+
+    static String key(String serverName) {
+        return (serverName == null) ? NO_SERVER : serverName.toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Bucket {
+        // lower-cased, comparable with Settings.serversException
+        public final String key;
+        // name as configured in Velocity (first seen)
+        public final String name;
+        public final Set<Player> players = ConcurrentHashMap.newKeySet();
+
+        Bucket(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable, typed snapshot of lang.yml.
+ * Built once per {@link Lang#load()} and published through a single volatile reference,
+ * so hot paths read plain fields instead of walking the config tree by dotted path.
+ */
+public final class Settings {
+
+    // network.proxyId left blank: stable for the life of this JVM, so reloads keep the same identity
+    private static final String GENERATED_PROXY_ID = "proxy-" + UUID.randomUUID().toString().substring(0, 8);
+
+    // messages.*
+    public final boolean joinEnabled;
+    public final String joinFormat;
+    public final boolean quitEnabled;
+    public final String quitFormat;
+    public final boolean switchEnabled;
+    public final String switchFormat;
+
+    // Same formats, parsed once
+    public final MessageTemplate joinMessage;
+    public final MessageTemplate quitMessage;
+    public final MessageTemplate switchMessage;
+
+    // messages.flood.* (join/quit storms summarized per window)
+    public final boolean floodEnabled;
+    public final int floodWindow;
+    public final int floodThreshold;
+    // {count}
+    public final MessageTemplate floodJoinMessage;
+    public final MessageTemplate floodQuitMessage;
+
+    // serversException, lower-cased
+    public final Set<String> serversException;
+
+    // reload.*
+    public final boolean reloadWatch;
+    public final int reloadDebounce;
+
+    // tab.*
+    public final boolean tabEnabled;
+    public final boolean showServerInName;
+    public final String unknownServerName;
+    public final int tabUpdateInterval;
+    public final int tabFlushImmediatelyBelow;
+
+    // tab.latency.* (periodic in-place ping refresh)
+    public final int tabLatencyInterval;
+    public final int tabLatencyMinDelta;
+
+    // tab.headerFooter.* (shared network header/footer)
+    public final boolean tabHeaderFooterEnabled;
+    public final int tabHeaderFooterInterval;
+    public final NetworkHeaderFooter.Format tabHeader;
+    public final NetworkHeaderFooter.Format tabFooter;
+
+    // tab.cap.* (bounded entry set per viewer, the rest summarized in the footer)
+    public final boolean tabCapEnabled;
+    public final int tabCapMaxEntries;
+    public final String tabCapPriorityPermission;
+    public final int tabCapRotateInterval;
+    public final int tabCapSummaryLines;
+    public final String tabCapOtherServers;
+    // {count} {server}
+    public final MessageTemplate tabCapSummary;
+
+    // fanout.*
+    public final boolean fanoutEnabled;
+    public final int fanoutMinPlayers;
+    public final int fanoutLanes;
+    public final int fanoutThreads;
+
+    // network.* (several proxies sharing one tab through Redis)
+    public final boolean networkEnabled;
+    public final String proxyId;
+    public final boolean proxyIdGenerated;
+    public final int networkSnapshotInterval;
+    public final int networkRemoteTimeout;
+    public final int networkPingBucket;
+
+    // sharding.*
+    public final boolean shardingEnabled;
+    public final String redisHost;
+    public final int redisPort;
+    public final String redisPassword;
+    public final int redisPoolSize;
+    public final int redisTimeout;
+    public final int redisPublishBatch;
+    public final int redisPublishQueue;
+    public final int preloadDelay;
+    public final boolean preloadAck;
+    public final int pendingTtl;
+    public final int pendingMaxSize;
+    public final int shardWorkerThreads;
+    public final int shardWorkerQueue;
+    public final StripedWorkers.OverflowPolicy shardWorkerOverflow;
+    public final int metricsDumpInterval;
+    // Reconnect backoff of the Redis listeners (milliseconds)
+    public final int subscriberMinBackoff;
+    public final int subscriberMaxBackoff;
+    // Watchdog of the pub/sub listeners (milliseconds, interval 0 = off)
+    public final int subscriberPingInterval;
+    public final int subscriberPingTimeout;
+    // sharding.streams.*
+    public final boolean streamsEnabled;
+    public final String streamsKey;
+    public final int streamsBatch;
+    // sharding.routing.*: "owned" = requests addressed to the proxy of the player (see PlayerOwnership)
+    public final boolean routingOwned;
+    public final int routingOwnerTtl;
+    public final boolean routingAcceptBroadcast;
+    // Shard table for binary transfer frames (index -> server name), shared with the Paper side
+    public final List<String> shardTable;
+    // Logical shard -> replica server names (load-balanced by ShardRouter)
+    public final Map<String, List<String>> shardGroups;
+    public final int shardGroupRefresh;
+    public final int shardGroupPingTimeout;
+
+    Settings(Lang lang) {
+        this.joinEnabled = lang.getBool("messages.join.enabled", true);
+        this.joinFormat = lang.getMini("messages.join.format",
+                "<gradient:#FF1493:#00FF7F>+</gradient> <white>{name}</white> <gray>joined the network</gray>");
+        this.quitEnabled = lang.getBool("messages.quit.enabled", true);
+        this.quitFormat = lang.getMini("messages.quit.format",
+                "<gradient:#FF1493:#00FF7F>-</gradient> <white>{name}</white> <gray>left the network</gray>");
+        this.switchEnabled = lang.getBool("messages.switch.enabled", false);
+        this.switchFormat = lang.getMini("messages.switch.format",
+                "<gray>{name}</gray> <dark_gray>»</dark_gray> <white>{to}</white>");
+
+        MiniMessage mm = MiniMessage.miniMessage();
+        this.joinMessage = MessageTemplate.compile(mm, joinFormat);
+        this.quitMessage = MessageTemplate.compile(mm, quitFormat);
+        this.switchMessage = MessageTemplate.compile(mm, switchFormat);
+
+        this.floodEnabled = lang.getBool("messages.flood.enabled", false);
+        this.floodWindow = Math.max(100, lang.getInt("messages.flood.window", 2000));
+        this.floodThreshold = Math.max(0, lang.getInt("messages.flood.threshold", 5));
+        this.floodJoinMessage = MessageTemplate.compile(mm, lang.getMini("messages.flood.join",
+                "<gradient:#FF1493:#00FF7F>+</gradient> <gray>{count} more players joined the network</gray>"), "count");
+        this.floodQuitMessage = MessageTemplate.compile(mm, lang.getMini("messages.flood.quit",
+                "<gradient:#FF1493:#00FF7F>-</gradient> <gray>{count} more players left the network</gray>"), "count");
+
+        Set<String> except = new HashSet<>();
+        for (String s : lang.getStringList("serversException")) {
+            except.add(s.toLowerCase(Locale.ROOT));
+        }
+        this.serversException = Set.copyOf(except);
+
+        this.reloadWatch = lang.getBool("reload.watch", true);
+        this.reloadDebounce = Math.max(50, lang.getInt("reload.debounce", 500));
+
+        this.tabEnabled = lang.getBool("tab.enabled", true);
+        this.showServerInName = lang.getBool("tab.showServerInName", true);
+        this.unknownServerName = lang.getString("tab.unknownServerName", "unknown");
+        this.tabUpdateInterval = lang.getInt("tab.updateInterval", 100);
+        this.tabFlushImmediatelyBelow = lang.getInt("tab.flushImmediatelyBelow", 20);
+
+        this.tabLatencyInterval = lang.getInt("tab.latency.interval", 5);
+        this.tabLatencyMinDelta = Math.max(0, lang.getInt("tab.latency.minDelta", 50));
+
+        this.tabHeaderFooterEnabled = lang.getBool("tab.headerFooter.enabled", false);
+        this.tabHeaderFooterInterval = Math.max(50, lang.getInt("tab.headerFooter.interval", 1000));
+        this.tabHeader = NetworkHeaderFooter.Format.compile(mm,
+                lang.getMini("tab.headerFooter.header", "<gradient:#FF1493:#00FF7F>Oreo Network</gradient>"));
+        this.tabFooter = NetworkHeaderFooter.Format.compile(mm,
+                lang.getMini("tab.headerFooter.footer", "<gray>{online}/{max} online</gray>"));
+
+        this.tabCapEnabled = lang.getBool("tab.cap.enabled", false);
+        this.tabCapMaxEntries = Math.max(1, lang.getInt("tab.cap.maxEntries", 80));
+        this.tabCapPriorityPermission = lang.getString("tab.cap.priorityPermission", "oreonetworktab.tab.priority").trim();
+        this.tabCapRotateInterval = lang.getInt("tab.cap.rotateInterval", 30);
+        this.tabCapSummaryLines = Math.max(0, lang.getInt("tab.cap.summaryLines", 3));
+        this.tabCapOtherServers = lang.getString("tab.cap.otherServers", "other servers");
+        this.tabCapSummary = MessageTemplate.compile(mm,
+                lang.getMini("tab.cap.summaryFormat", "<gray>+{count} more on <white>{server}</white></gray>"),
+                "count", "server");
+
+        this.fanoutEnabled = lang.getBool("fanout.enabled", false);
+        this.fanoutMinPlayers = lang.getInt("fanout.minPlayers", 500);
+        this.fanoutLanes = lang.getInt("fanout.lanes", 16);
+        this.fanoutThreads = lang.getInt("fanout.threads", 4);
+
+        this.networkEnabled = lang.getBool("network.enabled", false);
+        String id = lang.getString("network.proxyId", "").trim();
+        this.proxyIdGenerated = id.isEmpty();
+        this.proxyId = proxyIdGenerated ? GENERATED_PROXY_ID : id.replace('|', '_');
+        this.networkSnapshotInterval = lang.getInt("network.snapshotInterval", 30);
+        this.networkRemoteTimeout = lang.getInt("network.remoteTimeout", 90);
+        this.networkPingBucket = lang.getInt("network.pingBucket", 25);
+
+        this.shardingEnabled = lang.getBool("sharding.enabled", false);
+        this.redisHost = lang.getString("sharding.redis.host", "localhost");
+        this.redisPort = lang.getInt("sharding.redis.port", 6379);
+        this.redisPassword = lang.getString("sharding.redis.password", "");
+        this.redisPoolSize = lang.getInt("sharding.redis.poolSize", 8);
+        this.redisTimeout = lang.getInt("sharding.redis.timeout", 2000);
+        this.redisPublishBatch = lang.getInt("sharding.redis.publishBatch", 256);
+        this.redisPublishQueue = lang.getInt("sharding.redis.publishQueue", 10000);
+        this.preloadDelay = lang.getInt("sharding.preloadDelay", 100);
+        this.preloadAck = lang.getBool("sharding.preloadAck", true);
+        this.pendingTtl = lang.getInt("sharding.pending.ttl", 30000);
+        this.pendingMaxSize = lang.getInt("sharding.pending.maxSize", 10000);
+        this.shardWorkerThreads = lang.getInt("sharding.workers.threads", 4);
+        this.shardWorkerQueue = lang.getInt("sharding.workers.queueSize", 1024);
+        this.shardWorkerOverflow = StripedWorkers.OverflowPolicy.parse(lang.getString("sharding.workers.overflow", "drop-oldest"));
+        this.metricsDumpInterval = lang.getInt("sharding.metrics.dumpInterval", 0);
+        this.subscriberMinBackoff = lang.getInt("sharding.subscriber.minBackoff", 500);
+        this.subscriberMaxBackoff = lang.getInt("sharding.subscriber.maxBackoff", 30000);
+        this.subscriberPingInterval = lang.getInt("sharding.subscriber.pingInterval", 10000);
+        this.subscriberPingTimeout = lang.getInt("sharding.subscriber.pingTimeout", 5000);
+        this.streamsEnabled = lang.getBool("sharding.streams.enabled", false);
+        this.streamsKey = lang.getString("sharding.streams.key", "shard_transfer_requests:stream");
+        this.streamsBatch = lang.getInt("sharding.streams.batch", 100);
+        this.routingOwned = "owned".equalsIgnoreCase(lang.getString("sharding.routing.mode", "broadcast").trim());
+        this.routingOwnerTtl = Math.max(10, lang.getInt("sharding.routing.ownerTtl", 60));
+        this.routingAcceptBroadcast = lang.getBool("sharding.routing.acceptBroadcast", true);
+        this.shardTable = List.copyOf(lang.getStringList("sharding.shards"));
+        this.shardGroups = Map.copyOf(lang.getStringListMap("sharding.groups"));
+        this.shardGroupRefresh = lang.getInt("sharding.groupRefresh", 5);
+        this.shardGroupPingTimeout = Math.max(100, lang.getInt("sharding.groupPingTimeout", 1000));
+    }
+
+    public boolean isServerExcepted(String serverName) {
+        return !serversException.isEmpty() && serversException.contains(serverName.toLowerCase(Locale.ROOT));
+    }
+}
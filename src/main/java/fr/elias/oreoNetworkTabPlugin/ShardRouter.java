@@ -0,0 +1,171 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the shard named in a transfer request to a backend (sharding.groups).
+ * A logical shard may have several replicas; the least loaded healthy one wins.
+ * Load and health come from a snapshot refreshed in the background (player count from the backend's
+ * status ping, or this proxy's count if the ping has none), so routing never waits on the network.
+ * Between two refreshes, every transfer routed to a replica counts against it, so a burst spreads out
+ * instead of piling onto whichever replica looked emptiest at the last refresh. A ping only settles the
+ * transfers routed before it was sent; those routed while it was in flight keep counting.
+ * Shards that are not a group resolve to the Velocity server of the same name, as before.
+ */
+public final class ShardRouter {
+
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final long pingTimeoutMillis;
+
+    // lower-cased group name -> replicas (fixed after construction)
+    private final Map<String, Replica[]> groups = new HashMap<>();
+    private ScheduledTask refresher;
+
+    public ShardRouter(ProxyServer proxy, Logger logger, Object plugin, Settings settings) {
+        this.proxy = proxy;
+        this.logger = logger;
+        this.pingTimeoutMillis = settings.shardGroupPingTimeout;
+
+        for (Map.Entry<String, List<String>> e : settings.shardGroups.entrySet()) {
+            List<Replica> replicas = new ArrayList<>();
+            for (String name : e.getValue()) {
+                RegisteredServer server = proxy.getServer(name).orElse(null);
+                if (server == null) {
+                    logger.error("[ShardTransfer] Group '{}': server '{}' not found in Velocity config, ignored", e.getKey(), name);
+                    continue;
+                }
+                replicas.add(new Replica(server));
+            }
+            if (replicas.isEmpty()) continue;
+            groups.put(e.getKey().toLowerCase(Locale.ROOT), replicas.toArray(new Replica[0]));
+        }
+
+        if (groups.isEmpty()) return;
+        logger.info("[ShardTransfer] {} shard groups, load refreshed every {}s", groups.size(), settings.shardGroupRefresh);
+
+        refresh();
+        long every = Math.max(1, settings.shardGroupRefresh);
+        this.refresher = proxy.getScheduler()
+                .buildTask(plugin, this::refresh)
+                .delay(every, TimeUnit.SECONDS)
+                .repeat(every, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    /**
+     * @param shard shard name from the transfer request
+     * @return the backend to send the player to, or null if there is none
+     */
+    public RegisteredServer resolve(String shard) {
+        Replica[] replicas = groups.get(shard.toLowerCase(Locale.ROOT));
+        if (replicas == null) return proxy.getServer(shard).orElse(null);
+
+        Replica best = null;
+        for (Replica r : replicas) {
+            if (best == null || r.betterThan(best)) best = r;
+        }
+        best.routed.incrementAndGet();
+        return best.server;
+    }
+
+    /**
+     * Starts one status ping per replica; each one updates its replica when it answers (or fails).
+     */
+    private void refresh() {
+        for (Replica[] replicas : groups.values()) {
+            for (Replica r : replicas) {
+                long routedBefore = r.routed.get();
+                r.server.ping()
+                        .orTimeout(pingTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .whenComplete((ping, error) -> r.update(routedBefore, ping, error));
+            }
+        }
+    }
+
+    /**
+     * One line per group for /shardstats.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Replica[]> e : groups.entrySet()) {
+            StringBuilder sb = new StringBuilder("Group ").append(e.getKey()).append(':');
+            for (Replica r : e.getValue()) {
+                sb.append(' ').append(r.server.getServerInfo().getName())
+                        .append('=').append(r.load())
+                        .append(r.healthy ? "" : " (down)");
+            }
+            lines.add(sb.toString());
+        }
+        return lines;
+    }
+
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.cancel();
+            refresher = null;
+        }
+    }
+
+    private final class Replica {
+        final RegisteredServer server;
+        // Last snapshot
+        volatile int players;
+        volatile boolean healthy = true;
+        // Transfers ever routed here, and how many of them the snapshot already counts
+        final AtomicLong routed = new AtomicLong();
+        volatile long settled;
+
+        Replica(RegisteredServer server) {
+            this.server = server;
+        }
+
+        int load() {
+            return players + (int) (routed.get() - settled);
+        }
+
+        boolean betterThan(Replica other) {
+            if (healthy != other.healthy) return healthy;
+            return load() < other.load();
+        }
+
+        /**
+         * @param routedBefore {@link #routed} when the ping was sent
+         */
+        synchronized void update(long routedBefore, ServerPing ping, Throwable error) {
+            // An older ping answering after a newer one: its snapshot is stale
+            if (routedBefore < settled) return;
+
+            boolean wasHealthy = healthy;
+            if (error != null) {
+                healthy = false;
+                players = server.getPlayersConnected().size();
+                if (wasHealthy) {
+                    logger.warn("[ShardTransfer] Replica '{}' is not answering, routing around it", server.getServerInfo().getName());
+                }
+            } else {
+                healthy = true;
+                players = ping.getPlayers()
+                        .map(ServerPing.Players::getOnline)
+                        .orElseGet(() -> server.getPlayersConnected().size());
+                if (!wasHealthy) {
+                    logger.info("[ShardTransfer] Replica '{}' is back", server.getServerInfo().getName());
+                }
+            }
+            // The new count already includes whoever we sent there before the ping, not those sent since
+            settled = routedBefore;
+        }
+    }
+}
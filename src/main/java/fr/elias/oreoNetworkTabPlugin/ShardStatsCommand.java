@@ -0,0 +1,34 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * /shardstats: where shard transfer time goes, and how each stage of the pipeline is holding up.
+ */
+public final class ShardStatsCommand implements SimpleCommand {
+
+    public static final String PERMISSION = "oreonetworktab.shardstats";
+
+    private final ShardTransferHandler handler;
+
+    public ShardStatsCommand(ShardTransferHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        source.sendMessage(Component.text("Shard transfer stats", NamedTextColor.GOLD));
+        for (String line : handler.statusReport()) {
+            source.sendMessage(Component.text(line, NamedTextColor.GRAY));
+        }
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission(PERMISSION);
+    }
+}
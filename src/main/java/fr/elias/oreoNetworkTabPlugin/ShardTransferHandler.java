@@ -1,204 +1,776 @@
 package fr.elias.oreoNetworkTabPlugin;
 
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.ServerPostConnectEvent;
 import com.velocitypowered.api.event.player.ServerPreConnectEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import org.slf4j.Logger;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPubSub;
-
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Connection;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ShardTransferHandler {
 
-    private final ProxyServer proxy;
-    private final Logger logger;
-    private final Jedis redis;
-    private final int preloadDelay;
-    private final Object plugin; // Plugin instance for scheduler
+    // "UUID|targetShard|x|y|z" text frames (legacy) and TransferFrame binary frames
+    private static final String REQUEST_CHANNEL = "shard_transfer_requests";
+    private static final String BINARY_REQUEST_CHANNEL = "shard_transfer_requests:bin";
+    private static final byte[] REQUEST_CHANNEL_BYTES = REQUEST_CHANNEL.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BINARY_REQUEST_CHANNEL_BYTES = BINARY_REQUEST_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    // "groupId|targetShard|UUID,x,y,z;..." several players moving together (one pre-load, one release)
+    private static final String GROUP_REQUEST_CHANNEL = "shard_group_transfer_requests";
+    private static final byte[] GROUP_REQUEST_CHANNEL_BYTES = GROUP_REQUEST_CHANNEL.getBytes(StandardCharsets.UTF_8);
+    // "groupId|server|x,z;x,z;..." one pre-load for every chunk a group lands in (deduplicated)
+    private static final String PRELOAD_GROUP_CHANNEL = "shard_preload_chunks_group";
 
-    // Store connection info for subscriber thread
-    private final String redisHost;
-    private final int redisPort;
-    private final String redisPassword;
+    // Destination shard replies "UUID" (optionally followed by "|...") once the pre-loaded chunks are ready
+    // (the group id for group transfers)
+    private static final String PRELOAD_READY_CHANNEL = "shard_preload_ready";
+    private static final byte[] PRELOAD_READY_CHANNEL_BYTES = PRELOAD_READY_CHANNEL.getBytes(StandardCharsets.UTF_8);
 
-    // Track pending transfers to make them seamless
-    private final Map<UUID, PendingTransfer> pendingTransfers = new ConcurrentHashMap<>();
+    // sharding.routing.mode owned: requests addressed to this proxy arrive on "<channel>@<proxyId>"
+    private static final String ROUTED_SEPARATOR = "@";
 
-    public ShardTransferHandler(ProxyServer proxy, Logger logger, Object plugin, String redisHost, int redisPort, String redisPassword, int preloadDelay) {
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final RedisClient redis;
+    private final int preloadDelay;       // fixed wait, or upper bound when waiting for acks
+    private final boolean preloadAck;     // transfer as soon as the destination acks the pre-load
+    private final Object plugin; // Plugin instance for scheduler
+    private final List<String> shardTable; // binary frames carry an index into this list
+
+    // sharding.routing.mode owned: our players' ownership keys, and this proxy's own request channels
+    // (all null in broadcast mode)
+    private final PlayerOwnership ownership;
+    private final byte[] ownRequestChannel;
+    private final byte[] ownBinaryChannel;
+    private final byte[] ownGroupChannel;
+    private final byte[][] channels;
+    // Requests seen on a shared channel for players of other proxies (owned mode only)
+    private final AtomicLong notOwned = new AtomicLong();
+
+    // Shard name -> backend, load-balanced across sharding.groups replicas
+    private final ShardRouter router;
+
+    // The subscriber thread only enqueues; these workers (striped by player UUID) do the actual work
+    private final StripedWorkers workers;
+
+    // Pub/sub listener, re-subscribed with backoff whenever the connection drops
+    private final SupervisedSubscriber listener;
+    // Active subscription of the current session
+    private volatile BinaryJedisPubSub subscriber;
+    // sharding.streams: requests also read from a stream (kept across outages), null when disabled
+    private final TransferStream stream;
+    private final SupervisedSubscriber streamReader;
+
+    // Track pending transfers to make them seamless (latest request wins, TTL + size cap)
+    private final PendingTransferTable pendingTransfers;
+    private ScheduledTask sweeper;
+
+    // Past ServerPreConnect, waiting for ServerPostConnect to close their timeline
+    private final Map<UUID, PendingTransfer> inFlight = new ConcurrentHashMap<>();
+    // Group id -> members waiting for their shared pre-load (each member is also in pendingTransfers)
+    private final Map<UUID, PendingGroup> pendingGroups = new ConcurrentHashMap<>();
+    private final long pendingTtl;
+    private final TransferMetrics metrics = new TransferMetrics();
+
+    // Pre-load outcomes: released by ack vs. released by the preloadDelay timeout
+    private final AtomicLong preloadAcked = new AtomicLong();
+    private final AtomicLong preloadTimeouts = new AtomicLong();
+
+    public ShardTransferHandler(ProxyServer proxy, Logger logger, Object plugin, RedisClient redis, Settings settings) {
         this.proxy = proxy;
         this.logger = logger;
         this.plugin = plugin;
-        this.preloadDelay = preloadDelay;
-        this.redisHost = redisHost;
-        this.redisPort = redisPort;
-        this.redisPassword = redisPassword;
-
-        // Connect to Redis
-        this.redis = new Jedis(redisHost, redisPort);
-        if (redisPassword != null && !redisPassword.isEmpty()) {
-            redis.auth(redisPassword);
+        this.redis = redis;
+        this.preloadDelay = settings.preloadDelay;
+        this.preloadAck = settings.preloadAck;
+        this.shardTable = settings.shardTable;
+        this.pendingTransfers = new PendingTransferTable(settings.pendingTtl, settings.pendingMaxSize);
+        this.pendingTtl = settings.pendingTtl;
+        this.workers = new StripedWorkers(logger, "ShardTransfer-Worker", settings.shardWorkerThreads,
+                settings.shardWorkerQueue, settings.shardWorkerOverflow);
+        this.router = new ShardRouter(proxy, logger, plugin, settings);
+
+        if (this.shardTable.isEmpty()) {
+            logger.warn("[ShardTransfer] sharding.shards is empty - binary transfer frames will be rejected");
         }
 
-        logger.info("[ShardTransfer] Connected to Redis at {}:{}", redisHost, redisPort);
+        // Drop transfers that never reached ServerPreConnect (or never got their ServerPostConnect)
+        long sweepEvery = Math.max(1000L, settings.pendingTtl / 2);
+        this.sweeper = proxy.getScheduler()
+                .buildTask(plugin, () -> {
+                    int expired = pendingTransfers.sweep() + sweepInFlight();
+                    sweepGroups();
+                    if (expired > 0) {
+                        metrics.failed(TransferMetrics.Failure.EXPIRED, expired);
+                        logger.debug("[ShardTransfer] Expired {} stale pending transfers", expired);
+                    }
+                })
+                .delay(sweepEvery, TimeUnit.MILLISECONDS)
+                .repeat(sweepEvery, TimeUnit.MILLISECONDS)
+                .schedule();
+
+        List<byte[]> subscribed = new ArrayList<>();
+        if (settings.routingOwned) {
+            this.ownership = new PlayerOwnership(proxy, logger, plugin, redis, settings);
+            this.ownRequestChannel = routed(REQUEST_CHANNEL, settings.proxyId).getBytes(StandardCharsets.UTF_8);
+            this.ownBinaryChannel = routed(BINARY_REQUEST_CHANNEL, settings.proxyId).getBytes(StandardCharsets.UTF_8);
+            this.ownGroupChannel = routed(GROUP_REQUEST_CHANNEL, settings.proxyId).getBytes(StandardCharsets.UTF_8);
+            subscribed.addAll(List.of(ownRequestChannel, ownBinaryChannel, ownGroupChannel));
+            logger.info("[ShardTransfer] Routing by owner: requests for this proxy's players go to '{}'",
+                    routed(REQUEST_CHANNEL, settings.proxyId));
+            if (settings.proxyIdGenerated) {
+                logger.warn("[ShardTransfer] network.proxyId is blank: the routed channels change on every restart");
+            }
+        } else {
+            this.ownership = null;
+            this.ownRequestChannel = null;
+            this.ownBinaryChannel = null;
+            this.ownGroupChannel = null;
+        }
+        if (!settings.routingOwned || settings.routingAcceptBroadcast) {
+            subscribed.addAll(List.of(REQUEST_CHANNEL_BYTES, BINARY_REQUEST_CHANNEL_BYTES, GROUP_REQUEST_CHANNEL_BYTES));
+        }
+        subscribed.add(PRELOAD_READY_CHANNEL_BYTES);
+        this.channels = subscribed.toArray(new byte[0][]);
 
         // Start Redis listener for shard transfer requests
-        startRedisListener();
+        logger.info("[ShardTransfer] Starting Redis PubSub listener on channels '{}' (text), '{}' (binary), '{}' (groups) and '{}'",
+                REQUEST_CHANNEL, BINARY_REQUEST_CHANNEL, GROUP_REQUEST_CHANNEL, PRELOAD_READY_CHANNEL);
+        this.listener = new SupervisedSubscriber(logger, "ShardTransfer-Redis",
+                settings.subscriberMinBackoff, settings.subscriberMaxBackoff,
+                settings.subscriberPingInterval, settings.subscriberPingTimeout, new PubSubSession());
+        listener.start();
+
+        if (settings.streamsEnabled) {
+            String group = "oreotab-" + settings.proxyId;
+            // Owned mode: this proxy's own stream, nobody else's requests are even read
+            String key = settings.routingOwned ? routed(settings.streamsKey, settings.proxyId) : settings.streamsKey;
+            this.stream = new TransferStream(logger, redis, key, group, "proxy",
+                    settings.streamsBatch, settings.pendingTtl, settings.redisTimeout, this::handleStreamEntry);
+            // No watchdog: XREADGROUP blocks for a bounded time and the socket timeout applies
+            this.streamReader = new SupervisedSubscriber(logger, "ShardTransfer-Stream",
+                    settings.subscriberMinBackoff, settings.subscriberMaxBackoff, 0, 0, stream);
+            streamReader.start();
+            logger.info("[ShardTransfer] Also reading transfer requests from stream '{}' (consumer group '{}')",
+                    key, group);
+            if (settings.proxyIdGenerated) {
+                logger.warn("[ShardTransfer] network.proxyId is blank: the consumer group changes on every restart");
+            }
+        } else {
+            this.stream = null;
+            this.streamReader = null;
+        }
+    }
+
+    /**
+     * @return the name a channel (or stream key) takes when addressed to one proxy only
+     */
+    static String routed(String channel, String proxyId) {
+        return channel + ROUTED_SEPARATOR + proxyId;
+    }
+
+    /**
+     * Maps this proxy's routed channels to the shared channel of the same format (other channels unchanged).
+     */
+    private byte[] sharedChannel(byte[] channel) {
+        if (ownership == null) return channel;
+        if (Arrays.equals(channel, ownRequestChannel)) return REQUEST_CHANNEL_BYTES;
+        if (Arrays.equals(channel, ownBinaryChannel)) return BINARY_REQUEST_CHANNEL_BYTES;
+        if (Arrays.equals(channel, ownGroupChannel)) return GROUP_REQUEST_CHANNEL_BYTES;
+        return channel;
     }
 
-    private void startRedisListener() {
-        new Thread(() -> {
-            try (Jedis sub = new Jedis(redisHost, redisPort)) {
-                // Authenticate subscriber connection if password exists
-                if (redisPassword != null && !redisPassword.isEmpty()) {
-                    sub.auth(redisPassword);
+    /**
+     * One subscription to the request and ack channels; ends (and is retried) when the connection breaks.
+     */
+    private final class PubSubSession implements SupervisedSubscriber.Session {
+        private volatile Connection connection;
+
+        @Override
+        public void run(SupervisedSubscriber supervisor) {
+            // Subscribe to shard transfer requests from Paper servers.
+            // Binary subscription so both wire formats arrive on the same connection
+            // (holds one pooled connection for as long as the subscription lives).
+            // A fresh instance per session: a pub/sub object is done once its connection is.
+            BinaryJedisPubSub session = new BinaryJedisPubSub() {
+                @Override
+                public void onMessage(byte[] channel, byte[] message) {
+                    // Taken before queueing, so time spent waiting for a worker counts as "parse"
+                    long receivedAt = System.nanoTime();
+
+                    byte[] shared = sharedChannel(channel);
+                    // Owned mode, shared channel: every proxy got it, only the one with the player acts on it
+                    boolean onlyIfLocal = ownership != null && shared == channel;
+
+                    // Only enqueue here: a slow request must not hold up every message behind it
+                    workers.submit(stripeKey(shared, message), () -> {
+                        if (Arrays.equals(shared, PRELOAD_READY_CHANNEL_BYTES)) {
+                            handlePreloadReady(message);
+                        } else if (Arrays.equals(shared, GROUP_REQUEST_CHANNEL_BYTES)) {
+                            handleGroupTransferRequest(message, receivedAt, onlyIfLocal);
+                        } else {
+                            handleShardTransferRequest(shared, message, receivedAt, onlyIfLocal);
+                        }
+                    });
                 }
 
-                logger.info("[ShardTransfer] Starting Redis PubSub listener on channel 'shard_transfer_requests'");
+                @Override
+                public void onSubscribe(byte[] channel, int subscribedChannels) {
+                    logger.info("[ShardTransfer] Subscribed to Redis channel: {}", new String(channel, StandardCharsets.UTF_8));
+                    supervisor.connected();
+                }
 
-                // Subscribe to shard transfer requests from Paper servers
-                sub.subscribe(new JedisPubSub() {
-                    @Override
-                    public void onMessage(String channel, String message) {
-                        handleShardTransferRequest(message);
-                    }
+                @Override
+                public void onPong(byte[] pattern) {
+                    supervisor.pong();
+                }
+            };
+            subscriber = session;
+            redis.subscribe(session, c -> connection = c, channels);
+        }
 
-                    @Override
-                    public void onSubscribe(String channel, int subscribedChannels) {
-                        logger.info("[ShardTransfer] Subscribed to Redis channel: {}", channel);
-                    }
-                }, "shard_transfer_requests");
+        @Override
+        public void stop() {
+            BinaryJedisPubSub sub = subscriber;
+            if (sub != null && sub.isSubscribed()) {
+                sub.unsubscribe();
+            }
+        }
+
+        @Override
+        public boolean ping() {
+            BinaryJedisPubSub sub = subscriber;
+            if (sub != null && sub.isSubscribed()) sub.ping();
+            return true;
+        }
+
+        @Override
+        public void abort() {
+            Connection c = connection;
+            if (c != null) c.disconnect();
+        }
+    }
+
+    /**
+     * Stream reader thread: same worker pipeline as pub/sub, acked once handled.
+     * An entry the workers shed (dropped to make room, or refused) is acked too, like a lost pub/sub message:
+     * left pending it would only be redelivered after a restart, long past its TTL.
+     */
+    private void handleStreamEntry(String type, String data, Runnable ack) {
+        long receivedAt = System.nanoTime();
+        byte[] message = data.getBytes(StandardCharsets.UTF_8);
+        boolean group = "group".equals(type);
+
+        StripedWorkers.DroppableTask task = new StripedWorkers.DroppableTask() {
+            @Override
+            public void run() {
+                try {
+                    if (group) handleGroupTransferRequest(message, receivedAt, false);
+                    else handleShardTransferRequest(REQUEST_CHANNEL_BYTES, message, receivedAt, false);
+                } finally {
+                    ack.run();
+                }
+            }
+
+            @Override
+            public void dropped() {
+                ack.run();
+            }
+        };
+        if (!workers.submit(stripeKey(REQUEST_CHANNEL_BYTES, message), task)) {
+            ack.run();
+        }
+    }
 
-            } catch (Exception e) {
-                logger.error("[ShardTransfer] Redis listener died - seamless transfers will NOT work!", e);
-                logger.error("[ShardTransfer] Please check Redis connection and restart Velocity");
+    /**
+     * @param onlyIfLocal skip (quietly) requests for players who are not on this proxy
+     */
+    private void handleShardTransferRequest(byte[] channel, byte[] message, long receivedAtNanos, boolean onlyIfLocal) {
+        TransferRequest request;
+        try {
+            if (Arrays.equals(channel, BINARY_REQUEST_CHANNEL_BYTES)) {
+                request = TransferFrame.decode(message, shardTable);
+            } else {
+                // Message format from Paper plugin: "UUID|targetShard|x|y|z"
+                request = TransferRequest.parseText(new String(message, StandardCharsets.UTF_8));
             }
-        }, "ShardTransfer-Redis").start();
+        } catch (NumberFormatException e) {
+            metrics.received();
+            logger.error("[ShardTransfer] Invalid coordinates in transfer request: {}", describe(channel, message), e);
+            return;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            metrics.received();
+            logger.warn("[ShardTransfer] Invalid transfer request ({}): {}", e.getMessage(), describe(channel, message));
+            return;
+        }
+
+        if (onlyIfLocal && proxy.getPlayer(request.playerId).isEmpty()) {
+            notOwned.incrementAndGet();
+            return;
+        }
+        metrics.received();
+
+        try {
+            handleShardTransferRequest(request, receivedAtNanos);
+        } catch (Exception e) {
+            logger.error("[ShardTransfer] Unexpected error handling transfer request: {}", describe(channel, message), e);
+        }
     }
 
-    private void handleShardTransferRequest(String message) {
-        // Message format from Paper plugin: "UUID|targetShard|x|y|z"
-        String[] parts = message.split("\\|");
-        if (parts.length != 5) {
-            logger.warn("[ShardTransfer] Invalid transfer request format: {}", message);
+    private void handleShardTransferRequest(TransferRequest request, long receivedAtNanos) {
+        UUID playerId = request.playerId;
+        String targetShard = request.targetShard;
+        double x = request.x;
+        double y = request.y;
+        double z = request.z;
+
+        if (request.sentAtMillis > 0) {
+            // Wall clocks of two machines: only meaningful with NTP, negative skew is ignored
+            long transportMillis = System.currentTimeMillis() - request.sentAtMillis;
+            if (transportMillis >= 0) {
+                metrics.recordMicros(targetShard, TransferMetrics.Phase.TRANSPORT, transportMillis * 1000L);
+            }
+            logger.debug("[ShardTransfer] Transfer request for {} took {}ms to arrive", playerId, transportMillis);
+        }
+
+        // Get player from proxy
+        Player player = proxy.getPlayer(playerId).orElse(null);
+        if (player == null) {
+            metrics.failed(TransferMetrics.Failure.PLAYER_NOT_FOUND);
+            logger.warn("[ShardTransfer] Player {} not found on proxy", playerId);
+            return;
+        }
+
+        // Velocity server of that name, or the least loaded replica of that shard group
+        RegisteredServer targetServer = router.resolve(targetShard);
+        if (targetServer == null) {
+            metrics.failed(TransferMetrics.Failure.UNKNOWN_SERVER);
+            logger.error("[ShardTransfer] Target server '{}' not found in Velocity config!", targetShard);
+            logger.error("[ShardTransfer] Make sure velocity.toml has [servers] section with '{}'", targetShard);
             return;
         }
 
+        logger.debug("[ShardTransfer] Processing transfer: {} -> {} at ({}, {}, {})",
+                player.getUsername(), targetShard, x, y, z);
+
+        // Mark this transfer as pending for seamless handling.
+        // A newer request for the same player supersedes (and cancels) this one.
+        PendingTransfer pending = new PendingTransfer(player, targetServer, targetShard, x, y, z, receivedAtNanos);
+        pendingTransfers.put(playerId, pending);
+
+        // Pre-load chunks on destination server (send to Paper plugin via Redis)
+        // Queued on the pooled client: safe from this subscriber thread, pipelined during bursts
+        // Named after the backend actually chosen, so the right replica pre-loads
+        String preloadMsg = playerId + "|" + targetServer.getServerInfo().getName() + "|" + x + "|" + z;
+        redis.publish("shard_preload_chunks", preloadMsg);
+        pending.preloadPublishedAtNanos = System.nanoTime();
+        logger.debug("[ShardTransfer] Sent chunk pre-load request: {}", preloadMsg);
+
+        // Wait for chunks to load, then perform seamless transfer.
+        // With acks this is only the upper bound: handlePreloadReady() releases it earlier.
+        // FIX: Use plugin instance instead of 'this'
+        pending.timeout = proxy.getScheduler()
+                .buildTask(plugin, () -> {
+                    if (!pending.release()) return; // already released by the ack
+                    if (preloadAck) {
+                        preloadTimeouts.incrementAndGet();
+                        logger.debug("[ShardTransfer] No pre-load ack for {} after {}ms, transferring anyway",
+                                player.getUsername(), preloadDelay);
+                    }
+                    performSeamlessTransfer(pending);
+                })
+                .delay(preloadDelay, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    /**
+     * A group moving to one shard: every member is tracked like a single transfer (a newer request for one of them
+     * still supersedes it), but the chunks are pre-loaded with one request for the union of their areas,
+     * and the whole group is released at once, by the group ack or the preloadDelay timeout.
+     */
+    private void handleGroupTransferRequest(byte[] message, long receivedAtNanos, boolean onlyIfLocal) {
+        String text = new String(message, StandardCharsets.UTF_8);
+        GroupTransferRequest group;
         try {
-            UUID playerId = UUID.fromString(parts[0]);
-            String targetShard = parts[1];
-            double x = Double.parseDouble(parts[2]);
-            double y = Double.parseDouble(parts[3]);
-            double z = Double.parseDouble(parts[4]);
-
-            // Get player from proxy
-            Player player = proxy.getPlayer(playerId).orElse(null);
+            group = GroupTransferRequest.parseText(text);
+        } catch (IllegalArgumentException e) {
+            metrics.received();
+            logger.warn("[ShardTransfer] Invalid group transfer request ({}): {}", e.getMessage(), text);
+            return;
+        }
+
+        List<TransferRequest> requests = group.members;
+        if (onlyIfLocal) {
+            // Members of other proxies are theirs to move
+            requests = new ArrayList<>(group.members.size());
+            for (TransferRequest request : group.members) {
+                if (proxy.getPlayer(request.playerId).isPresent()) requests.add(request);
+                else notOwned.incrementAndGet();
+            }
+            if (requests.isEmpty()) return;
+        }
+        metrics.received(requests.size());
+
+        RegisteredServer targetServer = router.resolve(group.targetShard);
+        if (targetServer == null) {
+            metrics.failed(TransferMetrics.Failure.UNKNOWN_SERVER, requests.size());
+            logger.error("[ShardTransfer] Target server '{}' not found in Velocity config!", group.targetShard);
+            return;
+        }
+
+        List<PendingTransfer> members = new ArrayList<>(requests.size());
+        Set<Long> chunks = new HashSet<>();
+        StringBuilder areas = new StringBuilder();
+        for (TransferRequest request : requests) {
+            Player player = proxy.getPlayer(request.playerId).orElse(null);
             if (player == null) {
-                logger.warn("[ShardTransfer] Player {} not found on proxy", playerId);
-                return;
+                metrics.failed(TransferMetrics.Failure.PLAYER_NOT_FOUND);
+                logger.warn("[ShardTransfer] Player {} not found on proxy", request.playerId);
+                continue;
             }
 
-            // Get target server from Velocity config
-            RegisteredServer targetServer = proxy.getServer(targetShard).orElse(null);
-            if (targetServer == null) {
-                logger.error("[ShardTransfer] Target server '{}' not found in Velocity config!", targetShard);
-                logger.error("[ShardTransfer] Make sure velocity.toml has [servers] section with '{}'", targetShard);
-                return;
+            PendingTransfer pending = new PendingTransfer(player, targetServer, group.targetShard,
+                    request.x, request.y, request.z, receivedAtNanos);
+            pendingTransfers.put(request.playerId, pending);
+            members.add(pending);
+
+            // Members sharing a chunk share its pre-load
+            long chunk = ((long) ((int) Math.floor(request.x) >> 4) << 32) | (((int) Math.floor(request.z) >> 4) & 0xFFFFFFFFL);
+            if (chunks.add(chunk)) {
+                if (areas.length() > 0) areas.append(';');
+                areas.append(request.x).append(',').append(request.z);
             }
+        }
+        if (members.isEmpty()) return;
+
+        PendingGroup pendingGroup = new PendingGroup(members);
+        PendingGroup previous = pendingGroups.put(group.groupId, pendingGroup);
+        if (previous != null) previous.cancel(); // same group id re-sent: its members were just superseded anyway
+
+        String preloadMsg = group.groupId + "|" + targetServer.getServerInfo().getName() + "|" + areas;
+        redis.publish(PRELOAD_GROUP_CHANNEL, preloadMsg);
+        long publishedAt = System.nanoTime();
+        for (PendingTransfer member : members) {
+            member.preloadPublishedAtNanos = publishedAt;
+        }
+        logger.debug("[ShardTransfer] Group {} ({} players, {} chunk areas) -> {}",
+                group.groupId, members.size(), chunks.size(), targetServer.getServerInfo().getName());
 
-            logger.info("[ShardTransfer] Processing transfer: {} -> {} at ({}, {}, {})",
-                    player.getUsername(), targetShard, x, y, z);
+        pendingGroup.timeout = proxy.getScheduler()
+                .buildTask(plugin, () -> releaseGroup(group.groupId, pendingGroup, false))
+                .delay(preloadDelay, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
 
-            // Mark this transfer as pending for seamless handling
-            pendingTransfers.put(playerId, new PendingTransfer(targetShard, x, y, z));
+    /**
+     * Sends every member still waiting on this group (ack and timeout race: the first one releases it).
+     */
+    private void releaseGroup(UUID groupId, PendingGroup group, boolean acked) {
+        if (!pendingGroups.remove(groupId, group)) return;
+        if (acked) {
+            group.cancel();
+        }
 
-            // Pre-load chunks on destination server (send to Paper plugin via Redis)
-            String preloadMsg = playerId + "|" + targetShard + "|" + x + "|" + z;
-            redis.publish("shard_preload_chunks", preloadMsg);
-            logger.debug("[ShardTransfer] Sent chunk pre-load request: {}", preloadMsg);
+        for (PendingTransfer member : group.members) {
+            // Superseded by a newer request, or expired, meanwhile
+            if (!member.release()) continue;
 
-            // Wait for chunks to load, then perform seamless transfer
-            // FIX: Use plugin instance instead of 'this'
-            proxy.getScheduler()
-                    .buildTask(plugin, () -> performSeamlessTransfer(player, targetServer, x, y, z))
-                    .delay(preloadDelay, TimeUnit.MILLISECONDS)
-                    .schedule();
+            if (acked) preloadAcked.incrementAndGet();
+            else if (preloadAck) preloadTimeouts.incrementAndGet();
+            performSeamlessTransfer(member);
+        }
+    }
 
-        } catch (NumberFormatException e) {
-            logger.error("[ShardTransfer] Invalid coordinates in transfer request: {}", message, e);
+    private void sweepGroups() {
+        long cutoff = System.currentTimeMillis() - pendingTtl;
+        pendingGroups.values().removeIf(g -> {
+            if (g.createdAtMillis >= cutoff) return false;
+            g.cancel();
+            return true;
+        });
+    }
+
+    /**
+     * Destination shard finished loading the chunks: transfer right away instead of waiting for preloadDelay.
+     */
+    private void handlePreloadReady(byte[] message) {
+        if (!preloadAck) return;
+
+        String text = new String(message, StandardCharsets.UTF_8);
+        int sep = text.indexOf('|');
+        UUID playerId;
+        try {
+            playerId = UUID.fromString(sep < 0 ? text : text.substring(0, sep));
         } catch (IllegalArgumentException e) {
-            logger.error("[ShardTransfer] Invalid UUID in transfer request: {}", message, e);
-        } catch (Exception e) {
-            logger.error("[ShardTransfer] Unexpected error handling transfer request: {}", message, e);
+            logger.warn("[ShardTransfer] Invalid pre-load ack: {}", text);
+            return;
+        }
+
+        PendingTransfer pending = pendingTransfers.get(playerId);
+        if (pending == null) {
+            PendingGroup group = pendingGroups.get(playerId);
+            if (group != null) releaseGroup(playerId, group, true);
+            return;
+        }
+        if (!pending.release()) return; // timeout already fired
+
+        ScheduledTask timeout = pending.timeout;
+        if (timeout != null) timeout.cancel();
+
+        preloadAcked.incrementAndGet();
+        performSeamlessTransfer(pending);
+    }
+
+    /**
+     * @return transfers released by a pre-load ack
+     */
+    public long getPreloadAcked() {
+        return preloadAcked.get();
+    }
+
+    /**
+     * @return transfers that fell back to the preloadDelay timeout while waiting for an ack
+     */
+    public long getPreloadTimeouts() {
+        return preloadTimeouts.get();
+    }
+
+    /**
+     * @return per-shard phase latencies and failure counters
+     */
+    public TransferMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Everything /shardstats shows: phase latencies, then the health of each stage of the pipeline.
+     */
+    public List<String> statusReport() {
+        List<String> lines = new ArrayList<>(metrics.report());
+        lines.add("Pre-load: " + preloadAcked.get() + " acked, " + preloadTimeouts.get() + " timed out");
+        lines.add("Pending: " + pendingTransfers.size() + " waiting, " + inFlight.size() + " connecting, "
+                + pendingTransfers.getSuperseded() + " superseded, " + pendingTransfers.getExpired() + " expired, "
+                + pendingTransfers.getEvicted() + " evicted");
+        lines.add("Workers: " + workers.getQueueDepth() + " queued (deepest stripe " + workers.getMaxStripeDepth() + "), "
+                + workers.getDropped() + " dropped, " + workers.getRejected() + " rejected");
+        lines.addAll(router.report());
+        lines.add("Redis: " + redis.getQueuedPublishes() + " publishes queued, "
+                + redis.getDroppedPublishes() + " dropped");
+        if (ownership != null) {
+            lines.add("Routing: by owner, " + notOwned.get() + " shared-channel requests for other proxies skipped, "
+                    + ownership.getWriteFailures() + " ownership write failures");
+        }
+        lines.add("Subscriber: " + listener.getState() + ", " + listener.getReconnects() + " reconnects ("
+                + listener.getWatchdogAborts() + " after an unanswered ping)");
+        if (stream != null) {
+            lines.add("Stream: " + streamReader.getState() + ", " + streamReader.getReconnects() + " reconnects, "
+                    + stream.getConsumed() + " consumed, " + stream.getStale() + " stale");
+        }
+        return lines;
+    }
+
+    /**
+     * @return worker pipeline (queue depth, dropped / rejected counters)
+     */
+    public StripedWorkers getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return pending table (size, superseded / expired / evicted counters)
+     */
+    public PendingTransferTable getPendingTransfers() {
+        return pendingTransfers;
+    }
+
+    /**
+     * Player UUID of a raw message, read without allocating, so all messages of one player go to the same worker.
+     * Binary frames carry it at offset 1, text frames (requests and acks) start with it.
+     */
+    static long stripeKey(byte[] channel, byte[] message) {
+        if (Arrays.equals(channel, BINARY_REQUEST_CHANNEL_BYTES)) {
+            if (message.length < 17) return 0L;
+            ByteBuffer buf = ByteBuffer.wrap(message);
+            return buf.getLong(1) ^ buf.getLong(9);
+        }
+
+        long msb = 0L, lsb = 0L;
+        int nibbles = 0;
+        for (int i = 0; i < message.length && nibbles < 32; i++) {
+            int c = message[i];
+            if (c == '-') continue;
+
+            int v = Character.digit(c, 16);
+            if (v < 0) return 0L; // malformed: rejected later anyway
+
+            if (nibbles < 16) msb = (msb << 4) | v;
+            else lsb = (lsb << 4) | v;
+            nibbles++;
         }
+        return msb ^ lsb;
     }
 
-    private void performSeamlessTransfer(Player player, RegisteredServer target, double x, double y, double z) {
+    /**
+     * Members of one group transfer, released together.
+     */
+    private static final class PendingGroup {
+        final List<PendingTransfer> members;
+        final long createdAtMillis = System.currentTimeMillis();
+        volatile ScheduledTask timeout;
+
+        PendingGroup(List<PendingTransfer> members) {
+            this.members = members;
+        }
+
+        void cancel() {
+            ScheduledTask task = timeout;
+            if (task != null) task.cancel();
+        }
+    }
+
+    private static String describe(byte[] channel, byte[] message) {
+        if (Arrays.equals(channel, BINARY_REQUEST_CHANNEL_BYTES)) {
+            return "<binary frame, " + message.length + " bytes>";
+        }
+        return new String(message, StandardCharsets.UTF_8);
+    }
+
+    private void performSeamlessTransfer(PendingTransfer pending) {
+        Player player = pending.player;
+        RegisteredServer target = pending.target;
+
         // Verify player is still online
         if (!player.isActive()) {
+            metrics.failed(TransferMetrics.Failure.DISCONNECTED);
             logger.warn("[ShardTransfer] Player {} disconnected before transfer completed", player.getUsername());
-            pendingTransfers.remove(player.getUniqueId());
+            pendingTransfers.remove(player.getUniqueId(), pending);
             return;
         }
 
+        pending.connectRequestedAtNanos = System.nanoTime();
+
         // Perform the seamless transfer using Velocity's connection API
         // This uses the modern Velocity transfer system which is much smoother
         player.createConnectionRequest(target).fireAndForget();
 
         logger.info("[ShardTransfer] ✓ Seamlessly transferred {} to {} at ({}, {}, {})",
-                player.getUsername(), target.getServerInfo().getName(), x, y, z);
+                player.getUsername(), target.getServerInfo().getName(), pending.x, pending.y, pending.z);
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        if (ownership != null) {
+            ownership.claim(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        if (ownership != null) {
+            ownership.release(event.getPlayer().getUniqueId());
+        }
     }
 
     @Subscribe
     public void onServerPreConnect(ServerPreConnectEvent event) {
         Player player = event.getPlayer();
-        PendingTransfer transfer = pendingTransfers.remove(player.getUniqueId());
+        PendingTransfer transfer = pendingTransfers.get(player.getUniqueId());
+        if (transfer == null) return;
+        pendingTransfers.remove(player.getUniqueId(), transfer);
+
+        // Not the connection we released (manual /server, kick redirect...): drop the transfer
+        // so its timeout doesn't pull the player back to the shard later
+        if (!transfer.isReleased() || !transfer.target.equals(event.getOriginalServer())) {
+            transfer.cancel();
+            logger.debug("[ShardTransfer] {} moved to {} on their own, dropping pending transfer to {}",
+                    player.getUsername(), event.getOriginalServer().getServerInfo().getName(), transfer.targetShard);
+            return;
+        }
 
+        // This is a seamless shard transfer!
+        // The event is allowed to proceed normally, but we've marked it as seamless
+        transfer.preConnectAtNanos = System.nanoTime();
+        inFlight.put(player.getUniqueId(), transfer);
+        logger.debug("[ShardTransfer] Seamless transfer in progress for {} to {}",
+                player.getUsername(), transfer.targetShard);
+    }
+
+    @Subscribe
+    public void onServerPostConnect(ServerPostConnectEvent event) {
+        PendingTransfer transfer = inFlight.remove(event.getPlayer().getUniqueId());
         if (transfer != null) {
-            // This is a seamless shard transfer!
-            // The event is allowed to proceed normally, but we've marked it as seamless
-            logger.info("[ShardTransfer] Seamless transfer in progress for {} to {}",
-                    player.getUsername(), transfer.targetShard);
+            metrics.completed(transfer, System.nanoTime());
+        }
+    }
+
+    /**
+     * Connections that were denied or failed never fire ServerPostConnect.
+     *
+     * @return number of dropped entries
+     */
+    private int sweepInFlight() {
+        long cutoff = System.currentTimeMillis() - pendingTtl;
+        int count = 0;
+        for (Iterator<PendingTransfer> it = inFlight.values().iterator(); it.hasNext(); ) {
+            if (it.next().createdAtMillis < cutoff) {
+                it.remove();
+                count++;
+            }
         }
+        return count;
     }
 
     public void shutdown() {
         logger.info("[ShardTransfer] Shutting down...");
 
-        // Clear pending transfers
-        int pendingCount = pendingTransfers.size();
-        if (pendingCount > 0) {
-            logger.warn("[ShardTransfer] {} pending transfers will be interrupted", pendingCount);
+        if (sweeper != null) {
+            sweeper.cancel();
+            sweeper = null;
         }
-        pendingTransfers.clear();
 
-        // Close Redis connection
-        if (redis != null && redis.isConnected()) {
-            try {
-                redis.close();
-                logger.info("[ShardTransfer] Redis connection closed");
-            } catch (Exception e) {
-                logger.error("[ShardTransfer] Error closing Redis connection", e);
-            }
+        // Clear pending transfers (cancels their scheduled tasks)
+        int pendingCount = pendingTransfers.clear();
+        if (pendingCount > 0) {
+            logger.warn("[ShardTransfer] {} pending transfers were interrupted", pendingCount);
         }
 
-        logger.info("[ShardTransfer] Shutdown complete");
-    }
-
-    private static class PendingTransfer {
-        final String targetShard;
-        final double x, y, z;
+        inFlight.clear();
+        pendingGroups.values().forEach(PendingGroup::cancel);
+        pendingGroups.clear();
+        workers.shutdown();
+        router.shutdown();
+        if (ownership != null) {
+            ownership.shutdown();
+        }
 
-        PendingTransfer(String targetShard, double x, double y, double z) {
-            this.targetShard = targetShard;
-            this.x = x;
-            this.y = y;
-            this.z = z;
+        // Stop the listeners (the pooled client itself is closed by the plugin)
+        listener.stop();
+        if (streamReader != null) {
+            streamReader.stop();
         }
+
+        logger.info("[ShardTransfer] Shutdown complete");
     }
-}
\ No newline at end of file
+}
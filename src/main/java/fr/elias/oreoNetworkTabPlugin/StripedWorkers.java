@@ -0,0 +1,169 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.slf4j.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker threads fed by bounded queues, striped by key (player UUID).
+ * Tasks with the same key always run on the same worker, in submission order,
+ * while different players are processed in parallel.
+ */
+public final class StripedWorkers {
+
+    public enum OverflowPolicy {
+        /** Drop the oldest queued task of the stripe to make room. */
+        DROP_OLDEST,
+        /** Refuse the new task (logged). */
+        REJECT;
+
+        public static OverflowPolicy parse(String s) {
+            try {
+                return valueOf(s.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return DROP_OLDEST;
+            }
+        }
+    }
+
+    /**
+     * A task that has to know when DROP_OLDEST throws it away unrun (e.g. to ack a stream entry).
+     */
+    public interface DroppableTask extends Runnable {
+        /** Called on the submitting thread that made room. */
+        void dropped();
+    }
+
+    private final Logger logger;
+    private final String name;
+    private final OverflowPolicy overflow;
+    private final Stripe[] stripes;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean running = true;
+
+    public StripedWorkers(Logger logger, String name, int threads, int queueCapacity, OverflowPolicy overflow) {
+        this.logger = logger;
+        this.name = name;
+        this.overflow = overflow;
+        this.stripes = new Stripe[Math.max(1, threads)];
+
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(Math.max(1, queueCapacity));
+            Thread t = new Thread(stripes[i], name + "-" + (i + 1));
+            t.setDaemon(true);
+            stripes[i].thread = t;
+            t.start();
+        }
+    }
+
+    /**
+     * @return false if the task was rejected (queue full with REJECT policy, or shut down)
+     */
+    public boolean submit(long key, Runnable task) {
+        if (!running) return false;
+
+        Stripe stripe = stripes[stripeOf(key)];
+        if (stripe.queue.offer(task)) return true;
+
+        if (overflow == OverflowPolicy.REJECT) {
+            if (rejected.incrementAndGet() % 100 == 1) {
+                logger.warn("[{}] Worker queue full, rejecting messages ({} rejected so far)", name, rejected.get());
+            }
+            return false;
+        }
+
+        // DROP_OLDEST: make room, retry (another producer may win the slot, hence the loop)
+        while (!stripe.queue.offer(task)) {
+            Runnable oldest = stripe.queue.poll();
+            if (oldest == null) continue;
+
+            if (oldest instanceof DroppableTask droppable) {
+                try {
+                    droppable.dropped();
+                } catch (Exception e) {
+                    logger.error("[{}] Drop callback failed", name, e);
+                }
+            }
+            if (dropped.incrementAndGet() % 100 == 1) {
+                logger.warn("[{}] Worker queue full, dropping oldest messages ({} dropped so far)", name, dropped.get());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return tasks waiting across all stripes
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Stripe s : stripes) {
+            depth += s.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @return deepest single stripe (a hot player / skewed keys show up here)
+     */
+    public int getMaxStripeDepth() {
+        int max = 0;
+        for (Stripe s : stripes) {
+            max = Math.max(max, s.queue.size());
+        }
+        return max;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Stripe s : stripes) {
+            s.thread.interrupt();
+        }
+    }
+
+    private int stripeOf(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        return Math.floorMod(h ^ (h >>> 16), stripes.length);
+    }
+
+    private final class Stripe implements Runnable {
+        final BlockingQueue<Runnable> queue;
+        Thread thread;
+
+        Stripe(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Runnable task;
+                try {
+                    task = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (task == null) continue;
+
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("[{}] Worker task failed", name, e);
+                }
+            }
+        }
+    }
+}
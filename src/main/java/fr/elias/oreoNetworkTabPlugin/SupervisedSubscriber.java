@@ -0,0 +1,230 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a blocking Redis consumer (pub/sub subscription, stream reader) alive on its own thread.
+ * When the session ends on an error it is started again after a jittered exponential backoff
+ * (random between half and all of min * 2^attempt, capped at max); the backoff resets once a session
+ * reports itself connected. Only {@link #stop()} ends the loop.
+ * <p>
+ * A subscribed connection has no read timeout, so a half-open one (peer gone, no RST) would block forever.
+ * Sessions that can be pinged are checked by a watchdog thread: no pong within the timeout and the
+ * connection is torn down, which ends the session like any other disconnect.
+ */
+public final class SupervisedSubscriber {
+
+    public enum State { CONNECTING, CONNECTED, BACKOFF, STOPPED }
+
+    /**
+     * One connection's worth of consuming.
+     */
+    public interface Session {
+        /**
+         * Blocks while connected. Call {@link SupervisedSubscriber#connected()} once the subscription is live.
+         * Returning normally without {@link #stop()} counts as a disconnect too.
+         */
+        void run(SupervisedSubscriber supervisor) throws Exception;
+
+        /**
+         * Makes a running {@link #run} return (from another thread).
+         */
+        void stop();
+
+        /**
+         * Sends a ping over the live connection (from the watchdog thread); the reply must be reported
+         * through {@link SupervisedSubscriber#pong()}.
+         *
+         * @return false if this session cannot be pinged (no watchdog)
+         */
+        default boolean ping() throws Exception {
+            return false;
+        }
+
+        /**
+         * Closes the connection without talking to the server, so a blocked {@link #run} fails.
+         */
+        default void abort() {
+            stop();
+        }
+    }
+
+    private final Logger logger;
+    private final String name;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long pingIntervalMillis;
+    private final long pingTimeoutMillis;
+    private final Session session;
+
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong watchdogAborts = new AtomicLong();
+    private volatile boolean awaitingPong;
+    private volatile State state = State.CONNECTING;
+    private volatile boolean running = true;
+    private volatile Thread thread;
+    private int attempt; // supervisor thread only
+
+    /**
+     * @param pingIntervalMillis how often the watchdog pings a connected session (0 = no watchdog)
+     * @param pingTimeoutMillis  how long a ping may go unanswered before the connection is dropped
+     */
+    public SupervisedSubscriber(Logger logger, String name, long minBackoffMillis, long maxBackoffMillis,
+                                long pingIntervalMillis, long pingTimeoutMillis, Session session) {
+        this.logger = logger;
+        this.name = name;
+        this.minBackoffMillis = Math.max(1, minBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.minBackoffMillis, maxBackoffMillis);
+        this.pingIntervalMillis = Math.max(0, pingIntervalMillis);
+        this.pingTimeoutMillis = Math.max(1, pingTimeoutMillis);
+        this.session = session;
+    }
+
+    public void start() {
+        Thread t = new Thread(this::loop, name);
+        t.setDaemon(true);
+        this.thread = t;
+        t.start();
+
+        if (pingIntervalMillis > 0) {
+            Thread w = new Thread(this::watch, name + "-Watchdog");
+            w.setDaemon(true);
+            w.start();
+        }
+    }
+
+    /**
+     * Called by the session (from its own thread) when a ping is answered.
+     */
+    public void pong() {
+        awaitingPong = false;
+    }
+
+    /**
+     * Called by the session (from its own thread) once it is actually receiving.
+     */
+    public void connected() {
+        if (attempt > 0) {
+            logger.info("[{}] Reconnected after {} attempt(s)", name, attempt);
+        }
+        attempt = 0;
+        state = State.CONNECTED;
+    }
+
+    private void loop() {
+        while (running) {
+            state = State.CONNECTING;
+            try {
+                session.run(this);
+                if (!running) break;
+                logger.warn("[{}] Connection closed, reconnecting", name);
+            } catch (Exception e) {
+                if (!running) break;
+                logger.error("[{}] Connection lost: {}", name, e.getMessage());
+            }
+
+            state = State.BACKOFF;
+            long delay = backoff(attempt++, minBackoffMillis, maxBackoffMillis);
+            reconnects.incrementAndGet();
+            logger.info("[{}] Reconnecting in {}ms (attempt {})", name, delay, attempt);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            }
+        }
+        state = State.STOPPED;
+    }
+
+    private void watch() {
+        long tick = Math.min(pingIntervalMillis, pingTimeoutMillis);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(pingIntervalMillis);
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(pingTimeoutMillis);
+        boolean outstanding = false;
+        long pingSentAt = System.nanoTime() - intervalNanos;
+
+        while (running) {
+            try {
+                Thread.sleep(tick);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (state != State.CONNECTED) {
+                outstanding = false;
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if (outstanding && awaitingPong) {
+                if (now - pingSentAt < timeoutNanos) continue;
+                watchdogAborts.incrementAndGet();
+                logger.warn("[{}] No pong within {}ms, dropping the connection", name, pingTimeoutMillis);
+                outstanding = false;
+                abortSession();
+                continue;
+            }
+            outstanding = false;
+
+            if (now - pingSentAt < intervalNanos) continue;
+            try {
+                awaitingPong = true;
+                if (!session.ping()) return; // not pingable: nothing to watch
+                outstanding = true;
+                pingSentAt = now;
+            } catch (Exception e) {
+                logger.warn("[{}] Ping failed: {}", name, e.getMessage());
+                abortSession();
+            }
+        }
+    }
+
+    private void abortSession() {
+        try {
+            session.abort();
+        } catch (Exception e) {
+            logger.error("[{}] Error dropping the connection", name, e);
+        }
+    }
+
+    /**
+     * @return random delay between half and all of min * 2^attempt, capped at max
+     */
+    static long backoff(int attempt, long minBackoffMillis, long maxBackoffMillis) {
+        long ceiling = minBackoffMillis << Math.min(attempt, 20);
+        if (ceiling <= 0 || ceiling > maxBackoffMillis) ceiling = maxBackoffMillis;
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            session.stop();
+        } catch (Exception e) {
+            logger.error("[{}] Error stopping", name, e);
+        }
+        Thread t = thread;
+        if (t != null) t.interrupt();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return connections dropped because a ping went unanswered
+     */
+    public long getWatchdogAborts() {
+        return watchdogAborts.get();
+    }
+
+    /**
+     * @return sessions restarted after a disconnect
+     */
+    public long getReconnects() {
+        return reconnects.get();
+    }
+}
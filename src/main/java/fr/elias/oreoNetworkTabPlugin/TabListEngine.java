@@ -0,0 +1,467 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.player.TabList;
+import com.velocitypowered.api.proxy.player.TabListEntry;
+import com.velocitypowered.api.util.GameProfile;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Incremental network TAB.
+ * We keep, per viewer, a model of the entries we last pushed, and only send what changed:
+ * one add on join, one remove on quit, one display-name update on switch.
+ * Changes are batched by {@link TabUpdateScheduler}.
+ * A full rebuild (clearAll + re-add) only happens for a viewer whose own tab list was wiped.
+ * With a {@link NetworkRoster}, players of the other proxies are shown as synthetic entries;
+ * when a UUID is briefly both local and remote (moving between proxies) the local player wins.
+ * With tab.cap enabled each viewer only gets a bounded selection ({@link CappedTabView}),
+ * re-evaluated every batch and diffed against what they already have.
+ * Between batches, {@link #refreshLatencies} keeps local pings current with in-place latency updates.
+ */
+public final class TabListEngine {
+
+    private final ProxyServer proxy;
+    private final Lang lang;
+    private final FanOutExecutor fanOut;
+    private final NetworkRoster roster; // null when network.enabled is false
+    private final DisplayNameCache displayNames = new DisplayNameCache();
+
+    // viewer UUID -> what that viewer currently got from us
+    private final Map<UUID, ViewerModel> viewers = new ConcurrentHashMap<>();
+
+    // local target UUID -> latency we show for them (the same for every viewer)
+    private final Map<UUID, Integer> latencies = new ConcurrentHashMap<>();
+
+    // Which part of the network the capped view samples (changed by rotateSample)
+    private volatile long rotationSeed = ThreadLocalRandom.current().nextLong();
+
+    public TabListEngine(ProxyServer proxy, Lang lang, FanOutExecutor fanOut) {
+        this(proxy, lang, fanOut, null);
+    }
+
+    public TabListEngine(ProxyServer proxy, Lang lang, FanOutExecutor fanOut, NetworkRoster roster) {
+        this.proxy = proxy;
+        this.lang = lang;
+        this.fanOut = fanOut;
+        this.roster = roster;
+    }
+
+    /**
+     * Full rebuild for every online player (startup only).
+     */
+    public void resyncAll() {
+        Collection<Player> players = proxy.getAllPlayers();
+        Settings settings = lang.settings();
+        if (settings.tabCapEnabled) {
+            CappedTabView view = cappedView(players, settings);
+            fanOut.forEachAndWait(players, viewer -> showCapped(viewer, view, Set.of(), true, settings));
+            return;
+        }
+        fanOut.forEachAndWait(players, viewer -> resync(viewer, players, settings));
+    }
+
+    /**
+     * Capped view only: picks another sample of the network. Viewers see it on the next batch.
+     */
+    public void rotateSample() {
+        rotationSeed = ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Samples every local player's ping once and, for those that moved enough (see {@link #latencyMoved}),
+     * updates the latency of the entries viewers already have. Never adds or removes an entry.
+     * Remote players are left out: their ping buckets arrive through the roster like any other change.
+     */
+    public void refreshLatencies() {
+        Settings settings = lang.settings();
+        Collection<Player> players = proxy.getAllPlayers();
+
+        Map<UUID, Integer> moved = new HashMap<>();
+        for (Player target : players) {
+            if (!target.isActive()) continue;
+            UUID id = target.getUniqueId();
+            Integer shown = latencies.get(id);
+            if (shown == null) continue; // not pushed yet: their batch samples a fresh ping
+
+            int ping = ping(target);
+            if (!latencyMoved(shown, ping, settings.tabLatencyMinDelta)) continue;
+            // Only replace what we compared against: a batch may have pushed a newer ping meanwhile
+            if (latencies.replace(id, shown, ping)) moved.put(id, ping);
+        }
+        if (moved.isEmpty()) return;
+
+        fanOut.forEachAndWait(players, viewer -> {
+            ViewerModel model = viewers.get(viewer.getUniqueId());
+            if (model == null) return;
+            synchronized (model) {
+                TabList tab = viewer.getTabList();
+                // Walk whichever side is smaller (a capped view holds far fewer entries than the network)
+                Collection<UUID> ids = (moved.size() <= model.sent.size()) ? moved.keySet() : model.sent.keySet();
+                for (UUID id : ids) {
+                    Integer ping = moved.get(id);
+                    if (ping == null || !model.sent.containsKey(id)) continue;
+                    tab.getEntry(id).ifPresent(entry -> {
+                        if (entry.getLatency() != ping) entry.setLatency(ping);
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * A new ping is worth a packet when the client would draw other bars for it,
+     * or when it is at least minDelta ms away from the one shown (0 = any change).
+     */
+    static boolean latencyMoved(int shown, int ping, int minDelta) {
+        if (shown == ping) return false;
+        return bars(shown) != bars(ping) || Math.abs((long) ping - shown) >= minDelta;
+    }
+
+    // Vanilla client thresholds for the 5..1 connection bars
+    private static int bars(int ping) {
+        if (ping < 150) return 5;
+        if (ping < 300) return 4;
+        if (ping < 600) return 3;
+        if (ping < 1000) return 2;
+        return 1;
+    }
+
+    /**
+     * Applies one batch of changes in a single pass over the viewers.
+     *
+     * @param left    players that left the proxy: one remove per viewer
+     * @param changed players that joined or reached a (new) backend: one add / in-place update per viewer.
+     *                Velocity wipes a player's own tab list when their backend changes,
+     *                so these players also get a full resync of their own view.
+     */
+    public void apply(Set<UUID> left, Collection<Player> changed) {
+        apply(left, changed, Set.of(), List.of());
+    }
+
+    /**
+     * Same, with changes replicated from the other proxies.
+     *
+     * @param remoteLeft    players that left another proxy
+     * @param remoteChanged players that joined, switched or changed ping bucket on another proxy
+     */
+    public void apply(Set<UUID> left, Collection<Player> changed,
+                      Set<UUID> remoteLeft, Collection<RemotePlayer> remoteChanged) {
+        Settings settings = lang.settings();
+        if (settings.tabCapEnabled) {
+            applyCapped(left, changed, remoteChanged, settings);
+            return;
+        }
+
+        // Entries every viewer loses, and remote entries every viewer gets / updates
+        Set<UUID> removed = new HashSet<>();
+        Map<UUID, RemotePlayer> remotes = new HashMap<>();
+
+        for (UUID id : left) {
+            viewers.remove(id);
+            displayNames.invalidate(id);
+            latencies.remove(id);
+
+            // Already connected to another proxy: keep showing them, as a remote entry
+            RemotePlayer remote = (roster == null) ? null : roster.get(id);
+            if (remote != null) remotes.put(id, remote);
+            else removed.add(id);
+        }
+        for (UUID id : remoteLeft) {
+            if (proxy.getPlayer(id).isPresent()) continue; // moved here meanwhile
+            removed.add(id);
+        }
+        for (RemotePlayer remote : remoteChanged) {
+            if (proxy.getPlayer(remote.id).isPresent()) continue;
+            remotes.put(remote.id, remote);
+        }
+
+        Collection<Player> players = proxy.getAllPlayers();
+
+        // Display names of changed targets are the same for every viewer: build them once
+        Map<UUID, Player> changedById = new HashMap<>();
+        Map<UUID, Component> names = new HashMap<>();
+        for (Player target : changed) {
+            if (!target.isActive()) continue;
+            // Joined or switched server: rebuild their name once, every viewer shares it
+            displayNames.invalidate(target.getUniqueId());
+            latencies.put(target.getUniqueId(), ping(target));
+            changedById.put(target.getUniqueId(), target);
+            names.put(target.getUniqueId(), displayName(target, settings));
+        }
+        for (RemotePlayer remote : remotes.values()) {
+            names.put(remote.id, displayName(remote, settings));
+        }
+
+        // Each viewer only touches its own model, so viewers can be processed in parallel
+        fanOut.forEachAndWait(players, viewer -> {
+            if (left.contains(viewer.getUniqueId())) return;
+            if (changedById.containsKey(viewer.getUniqueId())) {
+                resync(viewer, players, settings);
+                return;
+            }
+
+            ViewerModel model = model(viewer);
+            synchronized (model) {
+                for (UUID id : removed) {
+                    if (model.sent.remove(id) != null) {
+                        viewer.getTabList().removeEntry(id);
+                    }
+                }
+                for (Player target : changedById.values()) {
+                    push(viewer, model, target, names.get(target.getUniqueId()));
+                }
+                for (RemotePlayer remote : remotes.values()) {
+                    push(viewer, model, remote.id, remote.profile, remote.ping, names.get(remote.id));
+                }
+            }
+        });
+    }
+
+    /**
+     * Capped variant of {@link #apply}: every viewer's selection is rebuilt from the current network and diffed
+     * against their model (players that left simply aren't candidates anymore).
+     * An empty batch still runs, which is how a rotation reaches the viewers.
+     */
+    private void applyCapped(Set<UUID> left, Collection<Player> changed,
+                             Collection<RemotePlayer> remoteChanged, Settings settings) {
+        for (UUID id : left) {
+            viewers.remove(id);
+            displayNames.invalidate(id);
+            latencies.remove(id);
+        }
+
+        // Local players whose own tab list was wiped, and every entry whose name or ping may be stale
+        Set<UUID> wiped = new HashSet<>();
+        Set<UUID> updated = new HashSet<>();
+        for (Player target : changed) {
+            if (!target.isActive()) continue;
+            displayNames.invalidate(target.getUniqueId());
+            latencies.put(target.getUniqueId(), ping(target));
+            wiped.add(target.getUniqueId());
+            updated.add(target.getUniqueId());
+        }
+        for (RemotePlayer remote : remoteChanged) {
+            updated.add(remote.id);
+        }
+
+        Collection<Player> players = proxy.getAllPlayers();
+        CappedTabView view = cappedView(players, settings);
+
+        fanOut.forEachAndWait(players, viewer -> {
+            if (left.contains(viewer.getUniqueId())) return;
+            showCapped(viewer, view, updated, wiped.contains(viewer.getUniqueId()), settings);
+        });
+    }
+
+    private CappedTabView cappedView(Collection<Player> players, Settings settings) {
+        long seed = rotationSeed;
+        String permission = settings.tabCapPriorityPermission;
+
+        List<CappedTabView.Target> targets = new ArrayList<>(players.size());
+        for (Player target : players) {
+            if (!target.isActive()) continue;
+            boolean priority = !permission.isEmpty() && target.hasPermission(permission);
+            targets.add(new CappedTabView.Target(target.getUniqueId(), target.getGameProfile(), latency(target),
+                    serverName(target, settings), displayName(target, settings), priority, seed));
+        }
+        if (roster != null) {
+            for (RemotePlayer remote : roster.remotePlayers()) {
+                if (proxy.getPlayer(remote.id).isPresent()) continue;
+                String server = (remote.server == null) ? settings.unknownServerName : remote.server;
+                // Permissions of remote players aren't replicated: they only compete on server and sample
+                targets.add(new CappedTabView.Target(remote.id, remote.profile, remote.ping,
+                        server, displayName(remote, settings), false, seed));
+            }
+        }
+        return new CappedTabView(targets, settings);
+    }
+
+    private void showCapped(Player viewer, CappedTabView view, Set<UUID> updated, boolean wiped, Settings settings) {
+        String server = serverName(viewer, settings);
+        long key = view.selectionKey(server);
+
+        ViewerModel model = model(viewer);
+        synchronized (model) {
+            TabList tab = viewer.getTabList();
+            if (wiped) {
+                tab.clearAll();
+                model.sent.clear();
+                model.shownPerServer = null;
+                model.footer = null; // the new backend may have sent its own
+            }
+
+            if (model.shownPerServer == null || model.selectionKey != key) {
+                Map<UUID, CappedTabView.Target> shown = view.select(viewer.getUniqueId(), server);
+
+                Iterator<UUID> it = model.sent.keySet().iterator();
+                while (it.hasNext()) {
+                    UUID id = it.next();
+                    if (shown.containsKey(id)) continue;
+                    it.remove();
+                    tab.removeEntry(id);
+                }
+                for (CappedTabView.Target target : shown.values()) {
+                    if (model.sent.get(target.id) == target.name && !updated.contains(target.id)) continue;
+                    push(viewer, model, target.id, target.profile, target.ping, target.name);
+                }
+
+                model.selectionKey = key;
+                model.shownPerServer = CappedTabView.countPerServer(shown.values());
+            } else {
+                // Same selection as last batch: only entries that changed in place
+                boolean touched = false;
+                for (UUID id : updated) {
+                    CappedTabView.Target target = view.get(id);
+                    if (target == null || !model.sent.containsKey(id)) continue;
+                    push(viewer, model, target.id, target.profile, target.ping, target.name);
+                    touched = true;
+                }
+                // One of them may have changed server
+                if (touched) {
+                    List<CappedTabView.Target> shown = new ArrayList<>(model.sent.size());
+                    for (UUID id : model.sent.keySet()) {
+                        shown.add(view.get(id));
+                    }
+                    model.shownPerServer = CappedTabView.countPerServer(shown);
+                }
+            }
+
+            // Counts moved even if the selection didn't
+            Component footer = view.footer(model.shownPerServer);
+            // Never hid anyone from this viewer: leave the footer to whoever else sets it
+            boolean unchanged = (model.footer == null) ? footer.equals(Component.empty()) : model.footer.equals(footer);
+            if (!unchanged) {
+                viewer.sendPlayerListFooter(footer);
+                model.footer = footer;
+            }
+        }
+    }
+
+    private void resync(Player viewer, Collection<Player> targets, Settings settings) {
+        ViewerModel model = model(viewer);
+        synchronized (model) {
+            // This is what overrides other tab systems:
+            viewer.getTabList().clearAll();
+            model.sent.clear();
+
+            for (Player target : targets) {
+                push(viewer, model, target, displayName(target, settings));
+            }
+            if (roster == null) return;
+            for (RemotePlayer remote : roster.remotePlayers()) {
+                if (proxy.getPlayer(remote.id).isPresent()) continue;
+                push(viewer, model, remote.id, remote.profile, remote.ping, displayName(remote, settings));
+            }
+        }
+    }
+
+    /**
+     * Adds the entry if the viewer doesn't have it, otherwise updates the display name in place
+     * (only if it is not already the exact component we sent).
+     */
+    private void push(Player viewer, ViewerModel model, Player target, Component name) {
+        push(viewer, model, target.getUniqueId(), target.getGameProfile(), latency(target), name);
+    }
+
+    private void push(Player viewer, ViewerModel model, UUID id, GameProfile profile, int ping, Component name) {
+        TabList tab = viewer.getTabList();
+
+        TabListEntry entry = tab.getEntry(id).orElse(null);
+        if (entry == null) {
+            tab.addEntry(TabListEntry.builder()
+                    .tabList(tab)
+                    .profile(profile)
+                    .displayName(name)
+                    .latency(ping)
+                    .gameMode(0)
+                    .listed(true)
+                    .showHat(true)
+                    .build());
+        } else if (entry.getDisplayNameComponent().orElse(null) != name) {
+            // Identity check on purpose: a backend overwriting the entry gives us a different instance
+            entry.setDisplayName(name);
+        }
+        if (entry != null && entry.getLatency() != ping) {
+            entry.setLatency(ping);
+        }
+
+        model.sent.put(id, name);
+    }
+
+    private Component displayName(Player target, Settings settings) {
+        return displayNames.get(target.getUniqueId(), target.getUsername(), serverName(target, settings), settings.showServerInName);
+    }
+
+    private static String serverName(Player player, Settings settings) {
+        return player.getCurrentServer()
+                .map(conn -> conn.getServerInfo().getName())
+                .orElse(settings.unknownServerName);
+    }
+
+    private static int ping(Player player) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, player.getPing()));
+    }
+
+    /**
+     * The ping we show for a local player: sampled once, then only moved by a batch or {@link #refreshLatencies}.
+     */
+    private int latency(Player target) {
+        return latencies.computeIfAbsent(target.getUniqueId(), k -> ping(target));
+    }
+
+    private Component displayName(RemotePlayer remote, Settings settings) {
+        String serverName = (remote.server == null) ? settings.unknownServerName : remote.server;
+        return displayNames.get(remote.id, remote.username, serverName, settings.showServerInName);
+    }
+
+    /**
+     * Capped view turned off by a reload: takes back the "+N more" footer we wrote to each viewer.
+     */
+    public void clearCappedFooters() {
+        for (Player viewer : proxy.getAllPlayers()) {
+            ViewerModel model = viewers.get(viewer.getUniqueId());
+            if (model == null) continue;
+            synchronized (model) {
+                if (model.footer != null && !model.footer.equals(Component.empty())) {
+                    viewer.sendPlayerListFooter(Component.empty());
+                }
+                model.footer = null;
+                model.shownPerServer = null;
+            }
+        }
+    }
+
+    /**
+     * Drops every cached display name (config reload).
+     */
+    public void invalidateDisplayNames() {
+        displayNames.clear();
+    }
+
+    private ViewerModel model(Player viewer) {
+        return viewers.computeIfAbsent(viewer.getUniqueId(), k -> new ViewerModel());
+    }
+
+    private static final class ViewerModel {
+        // target UUID -> display name we pushed (guarded by the model's monitor)
+        final Map<UUID, Component> sent = new HashMap<>();
+        // Capped view: what the selection was built from, and how many it shows per server (null = not built yet)
+        long selectionKey;
+        Map<String, Integer> shownPerServer;
+        // Capped view: last footer we sent, null = never touched it
+        Component footer;
+    }
+}
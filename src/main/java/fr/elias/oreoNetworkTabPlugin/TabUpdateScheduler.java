@@ -0,0 +1,168 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces TAB changes.
+ * Event handlers only mark players as dirty; a single repeating task applies everything
+ * that piled up since the last tick in one pass, so a reconnect storm costs one tab pass instead of hundreds.
+ * On small networks (below tab.flushImmediatelyBelow players) changes are applied right away.
+ * Both settings are read from the live config: {@link #start()} again after a reload picks up a new interval.
+ */
+public final class TabUpdateScheduler {
+
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final Object plugin;
+    private final TabListEngine engine;
+    private final Lang lang;
+
+    // Latest state per player: present = joined/switched, empty = left the proxy
+    private final Map<UUID, Optional<Player>> dirty = new ConcurrentHashMap<>();
+    // Same for players of the other proxies; kept apart so a remote leave never overrides a local join
+    private final Map<UUID, Optional<RemotePlayer>> remoteDirty = new ConcurrentHashMap<>();
+    // Run the next flush even without changes (capped view rotation)
+    private final AtomicBoolean refresh = new AtomicBoolean();
+
+    private ScheduledTask task;
+
+    public TabUpdateScheduler(ProxyServer proxy, Logger logger, Object plugin, TabListEngine engine, Lang lang) {
+        this.proxy = proxy;
+        this.logger = logger;
+        this.plugin = plugin;
+        this.engine = engine;
+        this.lang = lang;
+    }
+
+    /**
+     * Schedules the batch task, replacing the running one (tab.updateInterval changed on reload).
+     */
+    public synchronized void start() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        Settings settings = lang.settings();
+        long intervalMillis = settings.tabUpdateInterval;
+        if (intervalMillis <= 0) {
+            logger.info("[OreoNetworkTab] TAB updates applied immediately (tab.updateInterval <= 0).");
+            return;
+        }
+
+        task = proxy.getScheduler()
+                .buildTask(plugin, this::flush)
+                .delay(intervalMillis, TimeUnit.MILLISECONDS)
+                .repeat(intervalMillis, TimeUnit.MILLISECONDS)
+                .schedule();
+
+        logger.info("[OreoNetworkTab] TAB updates batched every {}ms (immediate below {} players).",
+                intervalMillis, settings.tabFlushImmediatelyBelow);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        dirty.clear();
+        remoteDirty.clear();
+    }
+
+    /**
+     * Player joined the proxy or reached a (new) backend.
+     */
+    public void markChanged(Player player) {
+        dirty.put(player.getUniqueId(), Optional.of(player));
+        flushIfSmall();
+    }
+
+    /**
+     * Player left the proxy (overrides any pending join/switch for them).
+     */
+    public void markLeft(UUID playerId) {
+        dirty.put(playerId, Optional.empty());
+        flushIfSmall();
+    }
+
+    /**
+     * Player joined, switched or changed ping bucket on another proxy.
+     */
+    public void markRemoteChanged(RemotePlayer player) {
+        remoteDirty.put(player.id, Optional.of(player));
+        flushIfSmall();
+    }
+
+    /**
+     * Player left another proxy (or that proxy went away).
+     */
+    public void markRemoteLeft(UUID playerId) {
+        remoteDirty.put(playerId, Optional.empty());
+        flushIfSmall();
+    }
+
+    /**
+     * Nobody changed, but what viewers should see did (capped view rotation): apply an empty batch.
+     */
+    public void requestRefresh() {
+        refresh.set(true);
+        flushIfSmall();
+    }
+
+    private void flushIfSmall() {
+        Settings settings = lang.settings();
+        if (settings.tabUpdateInterval <= 0 || proxy.getPlayerCount() < settings.tabFlushImmediatelyBelow) {
+            flush();
+        }
+    }
+
+    /**
+     * Applies every pending change. Synchronized so the timer and immediate flushes never overlap.
+     */
+    public synchronized void flush() {
+        boolean refreshing = refresh.getAndSet(false);
+        if (dirty.isEmpty() && remoteDirty.isEmpty() && !refreshing) return;
+
+        Set<UUID> left = new HashSet<>();
+        List<Player> changed = new ArrayList<>();
+        drain(dirty, left, changed);
+
+        Set<UUID> remoteLeft = new HashSet<>();
+        List<RemotePlayer> remoteChanged = new ArrayList<>();
+        drain(remoteDirty, remoteLeft, remoteChanged);
+
+        try {
+            engine.apply(left, changed, remoteLeft, remoteChanged);
+        } catch (Exception ex) {
+            logger.error("[OreoNetworkTab] Failed to apply TAB changes", ex);
+        }
+    }
+
+    private static <T> void drain(Map<UUID, Optional<T>> marks, Set<UUID> left, List<T> changed) {
+        for (Map.Entry<UUID, Optional<T>> e : marks.entrySet()) {
+            // Only drop the entry if nobody replaced it meanwhile; a newer mark waits for the next flush
+            if (!marks.remove(e.getKey(), e.getValue())) continue;
+
+            Optional<T> state = e.getValue();
+            if (state.isPresent()) {
+                changed.add(state.get());
+            } else {
+                left.add(e.getKey());
+            }
+        }
+    }
+}
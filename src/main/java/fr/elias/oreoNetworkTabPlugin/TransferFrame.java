@@ -0,0 +1,78 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary wire format for shard transfer requests (Redis binary pub/sub).
+ * <pre>
+ * v1, big-endian, 51 bytes:
+ *   byte   version (1)
+ *   long   uuid most significant bits
+ *   long   uuid least significant bits
+ *   short  shard index into sharding.shards
+ *   double x, y, z
+ *   long   sent-at timestamp (epoch millis)
+ * </pre>
+ * Decoded straight from the buffer, no intermediate Strings.
+ * Both sides must share the same sharding.shards table.
+ */
+public final class TransferFrame {
+
+    public static final byte VERSION_1 = 1;
+    public static final int V1_LENGTH = 1 + 16 + 2 + 3 * 8 + 8;
+
+    private TransferFrame() {
+    }
+
+    /**
+     * @throws IllegalArgumentException on unknown version, wrong length or shard index outside the table
+     */
+    public static TransferRequest decode(ByteBuffer buf, List<String> shardTable) {
+        if (buf.remaining() < 1) {
+            throw new IllegalArgumentException("Empty transfer frame");
+        }
+
+        byte version = buf.get();
+        if (version != VERSION_1) {
+            throw new IllegalArgumentException("Unsupported transfer frame version " + version);
+        }
+        if (buf.remaining() != V1_LENGTH - 1) {
+            throw new IllegalArgumentException("Bad transfer frame length " + (buf.remaining() + 1));
+        }
+
+        UUID playerId = new UUID(buf.getLong(), buf.getLong());
+        int shard = buf.getShort() & 0xFFFF;
+        if (shard >= shardTable.size()) {
+            throw new IllegalArgumentException("Unknown shard index " + shard + " (sharding.shards has " + shardTable.size() + ")");
+        }
+
+        double x = buf.getDouble();
+        double y = buf.getDouble();
+        double z = buf.getDouble();
+        long sentAt = buf.getLong();
+
+        return new TransferRequest(playerId, shardTable.get(shard), x, y, z, sentAt);
+    }
+
+    public static TransferRequest decode(byte[] frame, List<String> shardTable) {
+        return decode(ByteBuffer.wrap(frame), shardTable);
+    }
+
+    /**
+     * Reference encoder (what the Paper side sends).
+     */
+    public static byte[] encode(UUID playerId, int shardIndex, double x, double y, double z, long sentAtMillis) {
+        return ByteBuffer.allocate(V1_LENGTH)
+                .put(VERSION_1)
+                .putLong(playerId.getMostSignificantBits())
+                .putLong(playerId.getLeastSignificantBits())
+                .putShort((short) shardIndex)
+                .putDouble(x)
+                .putDouble(y)
+                .putDouble(z)
+                .putLong(sentAtMillis)
+                .array();
+    }
+}
@@ -0,0 +1,123 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where shard transfer time goes, per target shard.
+ * <pre>
+ * received -> preload published -> connect requested -> ServerPreConnect -> ServerPostConnect
+ *   "parse"        "preload"           "connect"            "join"
+ * </pre>
+ * plus "total" (received to PostConnect) and "transport" (Paper send timestamp to received, binary frames only).
+ */
+public final class TransferMetrics {
+
+    public enum Phase { TRANSPORT, PARSE, PRELOAD, CONNECT, JOIN, TOTAL }
+
+    public enum Failure { PLAYER_NOT_FOUND, UNKNOWN_SERVER, DISCONNECTED, EXPIRED }
+
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final Map<String, ShardStats> shards = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong[] failures = new AtomicLong[Failure.values().length];
+
+    public TransferMetrics() {
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] = new AtomicLong();
+        }
+    }
+
+    public void received() {
+        received.incrementAndGet();
+    }
+
+    public void received(long count) {
+        received.addAndGet(count);
+    }
+
+    public void failed(Failure failure) {
+        failures[failure.ordinal()].incrementAndGet();
+    }
+
+    public void failed(Failure failure, long count) {
+        failures[failure.ordinal()].addAndGet(count);
+    }
+
+    public void recordMicros(String shard, Phase phase, long micros) {
+        shard(shard).phases[phase.ordinal()].recordMicros(micros);
+    }
+
+    /**
+     * Transfer reached ServerPostConnect: records every phase of its timeline.
+     */
+    public void completed(PendingTransfer t, long postConnectNanos) {
+        completed.incrementAndGet();
+
+        ShardStats stats = shard(t.targetShard);
+        stats.completed.incrementAndGet();
+        recordPhase(stats, Phase.PARSE, t.receivedAtNanos, t.preloadPublishedAtNanos);
+        recordPhase(stats, Phase.PRELOAD, t.preloadPublishedAtNanos, t.connectRequestedAtNanos);
+        recordPhase(stats, Phase.CONNECT, t.connectRequestedAtNanos, t.preConnectAtNanos);
+        recordPhase(stats, Phase.JOIN, t.preConnectAtNanos, postConnectNanos);
+        recordPhase(stats, Phase.TOTAL, t.receivedAtNanos, postConnectNanos);
+    }
+
+    private static void recordPhase(ShardStats stats, Phase phase, long from, long to) {
+        if (from == 0L || to == 0L || to < from) return; // phase not reached
+        stats.phases[phase.ordinal()].recordNanos(to - from);
+    }
+
+    private ShardStats shard(String name) {
+        return shards.computeIfAbsent(name, k -> new ShardStats());
+    }
+
+    /**
+     * Human readable snapshot, used by /shardstats and the periodic dump.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        double uptimeSec = Math.max(1.0, (System.currentTimeMillis() - startedAtMillis) / 1000.0);
+
+        lines.add(String.format(Locale.ROOT, "Transfers: %d received, %d completed (%.2f/s avg)",
+                received.get(), completed.get(), completed.get() / uptimeSec));
+
+        StringBuilder fails = new StringBuilder("Failures:");
+        for (Failure f : Failure.values()) {
+            fails.append(' ').append(f.name().toLowerCase(Locale.ROOT)).append('=').append(failures[f.ordinal()].get());
+        }
+        lines.add(fails.toString());
+
+        for (Map.Entry<String, ShardStats> e : new TreeMap<>(shards).entrySet()) {
+            lines.add("Shard " + e.getKey() + " (" + e.getValue().completed.get() + " completed)");
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram h = e.getValue().phases[phase.ordinal()];
+                if (h.getCount() == 0) continue;
+
+                lines.add(String.format(Locale.ROOT, "  %-9s n=%-6d p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                        phase.name().toLowerCase(Locale.ROOT), h.getCount(),
+                        h.getPercentileMicros(50) / 1000.0, h.getPercentileMicros(90) / 1000.0,
+                        h.getPercentileMicros(99) / 1000.0, h.getMaxMicros() / 1000.0));
+            }
+        }
+        return lines;
+    }
+
+    private static final class ShardStats {
+        final AtomicLong completed = new AtomicLong();
+        final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+
+        ShardStats() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+    }
+}
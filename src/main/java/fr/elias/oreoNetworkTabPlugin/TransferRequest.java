@@ -0,0 +1,45 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import java.util.UUID;
+
+/**
+ * One decoded shard transfer request, whatever wire format it came from.
+ */
+public final class TransferRequest {
+
+    public final UUID playerId;
+    public final String targetShard;
+    public final double x, y, z;
+    // Epoch millis when the Paper server sent it, or -1 if the format doesn't carry it (text frames)
+    public final long sentAtMillis;
+
+    public TransferRequest(UUID playerId, String targetShard, double x, double y, double z, long sentAtMillis) {
+        this.playerId = playerId;
+        this.targetShard = targetShard;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.sentAtMillis = sentAtMillis;
+    }
+
+    /**
+     * Legacy text frame from the Paper plugin: "UUID|targetShard|x|y|z".
+     *
+     * @throws IllegalArgumentException on a malformed frame (NumberFormatException for bad coordinates)
+     */
+    public static TransferRequest parseText(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid transfer request format: " + message);
+        }
+
+        return new TransferRequest(
+                UUID.fromString(parts[0]),
+                parts[1],
+                Double.parseDouble(parts[2]),
+                Double.parseDouble(parts[3]),
+                Double.parseDouble(parts[4]),
+                -1L
+        );
+    }
+}
@@ -0,0 +1,164 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.slf4j.Logger;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.StreamEntry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfer requests read from a Redis stream (sharding.streams) instead of pub/sub.
+ * Entries stay in the stream while this proxy is disconnected, and its consumer group remembers
+ * where it stopped, so requests published during an outage are read on recovery instead of being lost.
+ * Each proxy reads through its own consumer group, so every proxy sees every entry (like pub/sub).
+ * <p>
+ * Entry fields: "type" ("text" or "group", see {@link TransferRequest} / {@link GroupTransferRequest}) and "data".
+ * Entries older than the pending TTL when read (stream IDs carry the Redis time) are acked and skipped:
+ * the player has long since moved on.
+ */
+public final class TransferStream implements SupervisedSubscriber.Session {
+
+    /**
+     * Called on the reader thread; must call ack once the entry is handled (or handed off).
+     */
+    public interface Listener {
+        void entry(String type, String data, Runnable ack);
+    }
+
+    private final Logger logger;
+    private final RedisClient redis;
+    private final String key;
+    private final String group;
+    private final String consumer;
+    private final int batch;
+    private final long maxAgeMillis;
+    private final int blockMillis;
+    private final Listener listener;
+
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private volatile boolean stopped;
+
+    /**
+     * @param socketTimeoutMillis the Redis socket timeout (sharding.redis.timeout); reads block for half of it
+     */
+    public TransferStream(Logger logger, RedisClient redis, String key, String group, String consumer,
+                          int batch, long maxAgeMillis, int socketTimeoutMillis, Listener listener) {
+        this.logger = logger;
+        this.redis = redis;
+        this.key = key;
+        this.group = group;
+        this.consumer = consumer;
+        this.batch = Math.max(1, batch);
+        this.maxAgeMillis = maxAgeMillis;
+        this.blockMillis = blockFor(socketTimeoutMillis);
+        this.listener = listener;
+    }
+
+    /**
+     * Blocking reads end well before the socket timeout, so a quiet stream is not taken for a dead connection.
+     */
+    static int blockFor(int socketTimeoutMillis) {
+        return Math.max(1, socketTimeoutMillis / 2);
+    }
+
+    @Override
+    public void run(SupervisedSubscriber supervisor) {
+        createGroup();
+        supervisor.connected();
+
+        // First what was delivered to us but never acked (we went down mid-batch), then new entries
+        readPending();
+        while (!stopped) {
+            read(StreamEntryID.XREADGROUP_UNDELIVERED_ENTRY, blockMillis);
+        }
+    }
+
+    private void createGroup() {
+        try {
+            // "$": a brand new group starts at the end, older entries belong to nobody
+            redis.pool().xgroupCreate(key, group, StreamEntryID.XGROUP_LAST_ENTRY, true);
+            logger.info("[ShardTransfer] Created consumer group '{}' on stream '{}'", group, key);
+        } catch (JedisDataException e) {
+            if (e.getMessage() == null || !e.getMessage().startsWith("BUSYGROUP")) throw e;
+        }
+    }
+
+    private void readPending() {
+        // Our pending list is read by id: each batch continues after the last entry of the previous one
+        StreamEntryID from = new StreamEntryID();
+        while (!stopped) {
+            StreamEntryID last = read(from, 0);
+            if (last == null) return;
+            from = last;
+        }
+    }
+
+    /**
+     * @return id of the last entry read, or null if there was none
+     */
+    private StreamEntryID read(StreamEntryID from, int blockMillis) {
+        XReadGroupParams params = XReadGroupParams.xReadGroupParams().count(batch);
+        if (blockMillis > 0) params.block(blockMillis);
+
+        List<Map.Entry<String, List<StreamEntry>>> result =
+                redis.pool().xreadGroup(group, consumer, params, Map.of(key, from));
+        if (result == null) return null;
+
+        StreamEntryID last = null;
+        for (Map.Entry<String, List<StreamEntry>> stream : result) {
+            for (StreamEntry entry : stream.getValue()) {
+                last = entry.getID();
+                handle(entry);
+            }
+        }
+        return last;
+    }
+
+    private void handle(StreamEntry entry) {
+        StreamEntryID id = entry.getID();
+        Runnable ack = () -> {
+            try {
+                redis.pool().xack(key, group, id);
+            } catch (Exception e) {
+                logger.warn("[ShardTransfer] Could not ack stream entry {}: {}", id, e.getMessage());
+            }
+        };
+
+        if (System.currentTimeMillis() - id.getTime() > maxAgeMillis) {
+            stale.incrementAndGet();
+            ack.run();
+            return;
+        }
+
+        Map<String, String> fields = entry.getFields();
+        String data = fields.get("data");
+        if (data == null) {
+            logger.warn("[ShardTransfer] Stream entry {} has no data field, skipped", id);
+            ack.run();
+            return;
+        }
+        consumed.incrementAndGet();
+        listener.entry(fields.getOrDefault("type", "text"), data, ack);
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getConsumed() {
+        return consumed.get();
+    }
+
+    /**
+     * @return entries skipped because they were older than the pending TTL when read
+     */
+    public long getStale() {
+        return stale.get();
+    }
+}
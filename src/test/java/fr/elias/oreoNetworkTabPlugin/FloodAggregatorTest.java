@@ -0,0 +1,102 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloodAggregatorTest {
+
+    @TempDir
+    Path dataDir;
+
+    private Settings settings(boolean enabled, int threshold) throws IOException {
+        Files.writeString(dataDir.resolve("lang.yml"), String.join("\n",
+                "messages:",
+                "  flood:",
+                "    enabled: " + enabled,
+                "    window: 60000",
+                "    threshold: " + threshold,
+                "    join: \"+{count} joined\"",
+                "    quit: \"-{count} left\""));
+        Lang lang = new Lang(NOPLogger.NOP_LOGGER, dataDir);
+        lang.load();
+        return lang.settings();
+    }
+
+    private static List<String> plain(List<Component> sent) {
+        List<String> out = new ArrayList<>();
+        for (Component c : sent) {
+            out.add(PlainTextComponentSerializer.plainText().serialize(c));
+        }
+        return out;
+    }
+
+    @Test
+    void eventsPastTheThresholdAreSummarizedOnFlush() throws IOException {
+        Settings settings = settings(true, 2);
+        List<Component> sent = new ArrayList<>();
+        FloodAggregator flood = new FloodAggregator(sent::add);
+
+        assertTrue(flood.offer("join", settings));
+        assertTrue(flood.offer("join", settings));
+        for (int i = 0; i < 1500; i++) {
+            assertFalse(flood.offer("join", settings));
+        }
+        assertTrue(flood.offer("quit", settings));
+        assertTrue(flood.offer("switch", settings), "only joins and quits are aggregated");
+
+        flood.flush(settings);
+        assertEquals(List.of("+1,500 joined"), plain(sent));
+
+        sent.clear();
+        flood.flush(settings);
+        assertTrue(sent.isEmpty(), "a flush drains what it announced");
+    }
+
+    @Test
+    void disabledLetsEverythingThrough() throws IOException {
+        Settings settings = settings(false, 0);
+        FloodAggregator flood = new FloodAggregator(c -> { });
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(flood.offer("join", settings));
+        }
+    }
+
+    @Test
+    void offByDefault() throws IOException {
+        Files.writeString(dataDir.resolve("lang.yml"), "messages:\n  join:\n    enabled: true");
+        Lang lang = new Lang(NOPLogger.NOP_LOGGER, dataDir);
+        lang.load();
+
+        assertFalse(lang.settings().floodEnabled);
+    }
+
+    @Test
+    void theCountRestartsWithEachWindow() {
+        FloodAggregator.Window window = new FloodAggregator.Window();
+
+        assertTrue(window.offer(10_000, 2_000, 1));
+        assertFalse(window.offer(10_500, 2_000, 1));
+        assertFalse(window.offer(11_999, 2_000, 1));
+        // New window: the threshold applies again
+        assertTrue(window.offer(12_000, 2_000, 1));
+        assertFalse(window.offer(12_001, 2_000, 1));
+
+        // Held events are kept across windows until drained
+        assertEquals(3, window.drain());
+        assertEquals(0, window.drain());
+    }
+}
@@ -0,0 +1,73 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long v = 0; v < 64; v++) {
+            assertEquals(v, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(v)));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndHoldTheirUpperBound() {
+        for (int i = 0; i < 1000; i++) {
+            long upper = LatencyHistogram.upperBoundOf(i);
+            assertEquals(i, LatencyHistogram.indexOf(upper));
+            assertEquals(i + 1, LatencyHistogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    void bucketsStayWithinThreePercent() {
+        for (long v = 64; v < 1_000_000; v += 97) {
+            long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(v));
+            assertTrue(upper >= v && upper - v <= v / 32, "value " + v + " reported as " + upper);
+        }
+    }
+
+    @Test
+    void percentilesLandOnBucketEdges() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 1; v <= 100; v++) {
+            h.recordMicros(v);
+        }
+
+        assertEquals(1, h.getPercentileMicros(0));
+        assertEquals(50, h.getPercentileMicros(50));
+        // 99 shares its bucket with 98: reported as the bucket's upper bound
+        assertEquals(99, h.getPercentileMicros(99));
+        assertEquals(LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(98)), h.getPercentileMicros(98));
+        // Never above the largest value recorded, even though 100's bucket goes up to 101
+        assertEquals(101, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(100)));
+        assertEquals(100, h.getPercentileMicros(100));
+    }
+
+    @Test
+    void aPercentileReportsTheUpperBoundOfItsBucket() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.recordMicros(64);
+        h.recordMicros(1000);
+
+        assertEquals(65, h.getPercentileMicros(50));
+        assertEquals(1000, h.getPercentileMicros(100));
+    }
+
+    @Test
+    void emptyAndClampedValues() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.getPercentileMicros(99));
+        assertEquals(0.0, h.getMeanMicros());
+
+        h.recordMicros(-5);
+        h.recordNanos(3_000);
+        assertEquals(2, h.getCount());
+        assertEquals(3, h.getMaxMicros());
+        assertEquals(1.5, h.getMeanMicros());
+    }
+}
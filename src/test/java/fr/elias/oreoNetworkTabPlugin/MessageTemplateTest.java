@@ -0,0 +1,61 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageTemplateTest {
+
+    private static final MiniMessage MM = MiniMessage.miniMessage();
+
+    private static String plain(Component c) {
+        return PlainTextComponentSerializer.plainText().serialize(c);
+    }
+
+    @Test
+    void rendersPlaceholdersWithoutReparsing() {
+        MessageTemplate t = MessageTemplate.compile(MM, "<white>{name}</white> <gray>{from} » {to}</gray>");
+
+        assertTrue(t.isPrecompiled());
+        assertEquals("Steve lobby » survival", plain(t.render("Steve", "survival", "lobby")));
+    }
+
+    @Test
+    void aTagSplittingAPlaceholderFallsBackToAPerEventParse() {
+        MessageTemplate t = MessageTemplate.compile(MM, "<gradient:#FF1493:#00FF7F>{name}</gradient> joined");
+
+        assertFalse(t.isPrecompiled());
+        assertEquals("Steve joined", plain(t.render("Steve")));
+        assertEquals("Alex joined", plain(t.render("Alex")));
+    }
+
+    @Test
+    void valuesAreInsertedUnparsed() {
+        MessageTemplate compiled = MessageTemplate.compile(MM, "<white>{name}</white> joined");
+        MessageTemplate fallback = MessageTemplate.compile(MM, "<gradient:red:blue>{name}</gradient> joined");
+
+        assertEquals("<red>Steve</red> joined", plain(compiled.render("<red>Steve</red>")));
+        assertEquals("<red>Steve</red> joined", plain(fallback.render("<red>Steve</red>")));
+    }
+
+    @Test
+    void missingValuesRenderEmpty() {
+        MessageTemplate t = MessageTemplate.compile(MM, "{name} -> {to}");
+
+        assertEquals("Steve -> ", plain(t.render("Steve")));
+    }
+
+    @Test
+    void customKeysAndNoPlaceholders() {
+        MessageTemplate count = MessageTemplate.compile(MM, "<gray>{count} more players</gray>", "count");
+        MessageTemplate fixed = MessageTemplate.compile(MM, "<gray>Welcome</gray>");
+
+        assertEquals("1,204 more players", plain(count.render("1,204")));
+        assertEquals("Welcome", plain(fixed.render("ignored")));
+    }
+}
@@ -0,0 +1,93 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingTransferTableTest {
+
+    private static PendingTransfer transfer() {
+        return new PendingTransfer(null, null, "survival", 0, 0, 0, System.nanoTime());
+    }
+
+    // createdAtMillis has millisecond resolution: make "older" unambiguous
+    private static PendingTransfer transferAfterTick() throws InterruptedException {
+        Thread.sleep(2);
+        return transfer();
+    }
+
+    @Test
+    void aNewRequestSupersedesAndCancelsThePreviousOne() {
+        PendingTransferTable table = new PendingTransferTable(30_000, 10);
+        UUID player = UUID.randomUUID();
+        PendingTransfer first = transfer();
+        PendingTransfer second = transfer();
+
+        table.put(player, first);
+        table.put(player, second);
+
+        assertSame(second, table.get(player));
+        assertEquals(1, table.size());
+        assertEquals(1, table.getSuperseded());
+        assertFalse(first.release(), "superseded transfer must not fire");
+        assertTrue(second.release());
+    }
+
+    @Test
+    void evictsTheOldestEntryPastMaxSize() throws InterruptedException {
+        PendingTransferTable table = new PendingTransferTable(30_000, 2);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        PendingTransfer oldest = transfer();
+
+        table.put(a, oldest);
+        table.put(b, transferAfterTick());
+        table.put(c, transferAfterTick());
+
+        assertEquals(2, table.size());
+        assertEquals(1, table.getEvicted());
+        assertNull(table.get(a));
+        assertFalse(oldest.release(), "evicted transfer must not fire");
+    }
+
+    @Test
+    void sweepDropsOnlyExpiredEntries() throws InterruptedException {
+        PendingTransferTable table = new PendingTransferTable(50, 10);
+        UUID old = UUID.randomUUID();
+        PendingTransfer expired = transfer();
+        table.put(old, expired);
+
+        assertEquals(0, table.sweep());
+        Thread.sleep(60);
+
+        UUID fresh = UUID.randomUUID();
+        table.put(fresh, transfer());
+        assertEquals(1, table.sweep());
+
+        assertNull(table.get(old));
+        assertEquals(1, table.size());
+        assertEquals(1, table.getExpired());
+        assertFalse(expired.release(), "expired transfer must not fire");
+    }
+
+    @Test
+    void conditionalRemoveKeepsANewerRequest() {
+        PendingTransferTable table = new PendingTransferTable(30_000, 10);
+        UUID player = UUID.randomUUID();
+        PendingTransfer first = transfer();
+        PendingTransfer second = transfer();
+        table.put(player, first);
+        table.put(player, second);
+
+        assertFalse(table.remove(player, first));
+        assertTrue(table.remove(player, second));
+        assertEquals(0, table.size());
+    }
+}
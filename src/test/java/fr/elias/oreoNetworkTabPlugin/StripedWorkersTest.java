@@ -0,0 +1,116 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedWorkersTest {
+
+    private StripedWorkers workers;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (workers != null) workers.shutdown();
+    }
+
+    // Holds the single worker busy, so everything submitted after it stays queued
+    private void blockWorker() throws InterruptedException {
+        workers.submit(1L, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void dropOldestMakesRoomAndCountsDrops() throws InterruptedException {
+        workers = new StripedWorkers(NOPLogger.NOP_LOGGER, "test", 1, 2, StripedWorkers.OverflowPolicy.DROP_OLDEST);
+        blockWorker();
+
+        List<Integer> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        for (int i = 1; i <= 5; i++) {
+            int n = i;
+            assertTrue(workers.submit(1L, () -> {
+                ran.add(n);
+                done.countDown();
+            }));
+        }
+
+        assertEquals(3, workers.getDropped());
+        assertEquals(0, workers.getRejected());
+        assertEquals(2, workers.getQueueDepth());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(4, 5), ran, "the newest tasks survive, in order");
+    }
+
+    @Test
+    void droppedTasksAreToldSo() throws InterruptedException {
+        workers = new StripedWorkers(NOPLogger.NOP_LOGGER, "test", 1, 1, StripedWorkers.OverflowPolicy.DROP_OLDEST);
+        blockWorker();
+
+        AtomicInteger dropped = new AtomicInteger();
+        StripedWorkers.DroppableTask task = new StripedWorkers.DroppableTask() {
+            @Override
+            public void run() {
+            }
+
+            @Override
+            public void dropped() {
+                dropped.incrementAndGet();
+            }
+        };
+        workers.submit(1L, task);
+        workers.submit(1L, () -> { });
+
+        assertEquals(1, dropped.get());
+    }
+
+    @Test
+    void rejectRefusesNewTasksAndCountsRejections() throws InterruptedException {
+        workers = new StripedWorkers(NOPLogger.NOP_LOGGER, "test", 1, 2, StripedWorkers.OverflowPolicy.REJECT);
+        blockWorker();
+
+        assertTrue(workers.submit(1L, () -> { }));
+        assertTrue(workers.submit(1L, () -> { }));
+        assertFalse(workers.submit(1L, () -> { }));
+        assertFalse(workers.submit(1L, () -> { }));
+
+        assertEquals(2, workers.getRejected());
+        assertEquals(0, workers.getDropped());
+        assertEquals(2, workers.getQueueDepth());
+    }
+
+    @Test
+    void refusesEverythingAfterShutdown() {
+        workers = new StripedWorkers(NOPLogger.NOP_LOGGER, "test", 1, 2, StripedWorkers.OverflowPolicy.DROP_OLDEST);
+        workers.shutdown();
+
+        assertFalse(workers.submit(1L, () -> { }));
+    }
+
+    @Test
+    void parsesThePolicyLeniently() {
+        assertEquals(StripedWorkers.OverflowPolicy.DROP_OLDEST, StripedWorkers.OverflowPolicy.parse("drop-oldest"));
+        assertEquals(StripedWorkers.OverflowPolicy.REJECT, StripedWorkers.OverflowPolicy.parse(" Reject "));
+        assertEquals(StripedWorkers.OverflowPolicy.DROP_OLDEST, StripedWorkers.OverflowPolicy.parse("nonsense"));
+    }
+}
@@ -0,0 +1,47 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SupervisedSubscriberTest {
+
+    private static final long MIN = 500;
+    private static final long MAX = 30_000;
+
+    @Test
+    void backoffDoublesWithinHalfAndAllOfTheCeiling() {
+        for (int attempt = 0; attempt < 6; attempt++) {
+            long ceiling = MIN << attempt;
+            for (int i = 0; i < 200; i++) {
+                long delay = SupervisedSubscriber.backoff(attempt, MIN, MAX);
+                assertTrue(delay >= ceiling / 2 && delay <= ceiling,
+                        "attempt " + attempt + ": " + delay + " outside [" + ceiling / 2 + ", " + ceiling + "]");
+            }
+        }
+    }
+
+    @Test
+    void backoffIsCappedAtMax() {
+        // 500 << 6 = 32000 already passes max; very large attempts must not overflow either
+        for (int attempt : new int[]{6, 20, 63, Integer.MAX_VALUE}) {
+            for (int i = 0; i < 200; i++) {
+                long delay = SupervisedSubscriber.backoff(attempt, MIN, MAX);
+                assertTrue(delay >= MAX / 2 && delay <= MAX, "attempt " + attempt + ": " + delay);
+            }
+        }
+    }
+
+    @Test
+    void backoffIsJittered() {
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            delays.add(SupervisedSubscriber.backoff(3, MIN, MAX));
+        }
+        // 50 draws out of 2001 possible delays: a constant would mean proxies reconnect in lockstep
+        assertTrue(delays.size() > 1);
+    }
+}
@@ -0,0 +1,40 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TabListEngineTest {
+
+    @Test
+    void sameValueNeverMoves() {
+        assertFalse(TabListEngine.latencyMoved(80, 80, 0));
+    }
+
+    @Test
+    void crossingABarThresholdAlwaysMoves() {
+        int minDelta = 1_000;
+        assertTrue(TabListEngine.latencyMoved(149, 150, minDelta));
+        assertTrue(TabListEngine.latencyMoved(150, 149, minDelta));
+        assertTrue(TabListEngine.latencyMoved(299, 300, minDelta));
+        assertTrue(TabListEngine.latencyMoved(599, 600, minDelta));
+        assertTrue(TabListEngine.latencyMoved(999, 1000, minDelta));
+        assertTrue(TabListEngine.latencyMoved(1000, 999, minDelta));
+    }
+
+    @Test
+    void withinABarOnlyMinDeltaCounts() {
+        assertFalse(TabListEngine.latencyMoved(150, 299, 200));
+        assertTrue(TabListEngine.latencyMoved(150, 290, 100));
+        assertFalse(TabListEngine.latencyMoved(300, 599, 300));
+        assertFalse(TabListEngine.latencyMoved(600, 999, 400));
+        assertFalse(TabListEngine.latencyMoved(1000, 5000, 10_000));
+        assertTrue(TabListEngine.latencyMoved(1000, 5000, 4000));
+    }
+
+    @Test
+    void zeroMinDeltaMovesOnAnyChange() {
+        assertTrue(TabListEngine.latencyMoved(40, 41, 0));
+    }
+}
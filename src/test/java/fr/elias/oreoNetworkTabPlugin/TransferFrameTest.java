@@ -0,0 +1,61 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferFrameTest {
+
+    private static final List<String> SHARDS = List.of("lobby", "survival-1", "survival-2");
+    private static final UUID PLAYER = UUID.fromString("3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f");
+
+    @Test
+    void roundTripsA51ByteFrame() {
+        byte[] frame = TransferFrame.encode(PLAYER, 2, 12.5, 64.0, -300.25, 1_700_000_000_123L);
+        assertEquals(51, frame.length);
+        assertEquals(TransferFrame.V1_LENGTH, frame.length);
+
+        TransferRequest request = TransferFrame.decode(frame, SHARDS);
+        assertEquals(PLAYER, request.playerId);
+        assertEquals("survival-2", request.targetShard);
+        assertEquals(12.5, request.x);
+        assertEquals(64.0, request.y);
+        assertEquals(-300.25, request.z);
+        assertEquals(1_700_000_000_123L, request.sentAtMillis);
+    }
+
+    @Test
+    void decodesFromTheBufferPosition() {
+        byte[] frame = TransferFrame.encode(PLAYER, 0, 0, 0, 0, 0);
+        ByteBuffer buf = ByteBuffer.allocate(frame.length + 3).put(new byte[3]).put(frame).flip();
+        buf.position(3);
+
+        assertEquals("lobby", TransferFrame.decode(buf, SHARDS).targetShard);
+    }
+
+    @Test
+    void rejectsAnUnknownVersion() {
+        byte[] frame = TransferFrame.encode(PLAYER, 0, 0, 0, 0, 0);
+        frame[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> TransferFrame.decode(frame, SHARDS));
+    }
+
+    @Test
+    void rejectsAShortBuffer() {
+        byte[] frame = TransferFrame.encode(PLAYER, 0, 0, 0, 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> TransferFrame.decode(Arrays.copyOf(frame, 50), SHARDS));
+        assertThrows(IllegalArgumentException.class, () -> TransferFrame.decode(new byte[0], SHARDS));
+    }
+
+    @Test
+    void rejectsAShardOutsideTheTable() {
+        byte[] frame = TransferFrame.encode(PLAYER, 3, 0, 0, 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> TransferFrame.decode(frame, SHARDS));
+    }
+}
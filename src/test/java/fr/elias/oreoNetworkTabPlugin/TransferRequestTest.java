@@ -0,0 +1,38 @@
+package fr.elias.oreoNetworkTabPlugin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferRequestTest {
+
+    @Test
+    void parsesATextFrame() {
+        TransferRequest request = TransferRequest.parseText("3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f|survival-1|1.5|70|-8");
+
+        assertEquals(UUID.fromString("3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f"), request.playerId);
+        assertEquals("survival-1", request.targetShard);
+        assertEquals(1.5, request.x);
+        assertEquals(70.0, request.y);
+        assertEquals(-8.0, request.z);
+        assertEquals(-1L, request.sentAtMillis);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f|survival-1|1|2",
+            "3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f|survival-1|1|2|3|4",
+            "not-a-uuid|survival-1|1|2|3",
+            "3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f|survival-1|x|2|3",
+            "3f2b8c1e-5d4a-4e2b-9c7d-1a2b3c4d5e6f|survival-1|1|2|",
+    })
+    void rejectsAMalformedFrame(String message) {
+        assertThrows(IllegalArgumentException.class, () -> TransferRequest.parseText(message));
+    }
+}